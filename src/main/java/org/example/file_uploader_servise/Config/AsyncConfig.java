@@ -1,6 +1,9 @@
 package org.example.file_uploader_servise.Config;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -11,14 +14,93 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig {
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean(name = "uploadExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(
+            @Value("${app.upload.executor.core-size:5}") int coreSize,
+            @Value("${app.upload.executor.max-size:10}") int maxSize,
+            @Value("${app.upload.executor.queue-capacity:100}") int queueCapacity,
+            @Value("${app.upload.executor.virtual-concurrency-limit:512}") int virtualConcurrencyLimit
+    ) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("FileUpload-", virtualConcurrencyLimit, true);
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
         executor.setThreadNamePrefix("FileUpload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "s3PartExecutor")
+    public Executor s3PartExecutor(
+            @Value("${storage.s3.multipart.max-threads:16}") int maxThreads
+    ) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("S3Part-", maxThreads, false);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setThreadNamePrefix("S3Part-");
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    @Bean(name = "downloadExecutor")
+    public AsyncTaskExecutor downloadExecutor(
+            @Value("${app.download.executor.max-size:32}") int maxSize,
+            @Value("${app.download.executor.queue-capacity:64}") int queueCapacity
+    ) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("Download-", maxSize, true);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Download-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "sseExecutor")
+    public Executor sseExecutor(
+            @Value("${app.upload.events.executor.max-size:8}") int maxSize,
+            @Value("${app.upload.events.executor.queue-capacity:1000}") int queueCapacity
+    ) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("Sse-", queueCapacity, true);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Sse-");
+        executor.initialize();
+        return executor;
+    }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(
+            String threadNamePrefix,
+            int concurrencyLimit,
+            boolean rejectWhenLimitReached
+    ) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setRejectTasksWhenLimitReached(rejectWhenLimitReached);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.file_uploader_servise.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${app.mongo.max-pool-size:100}") int maxPoolSize,
+            @Value("${app.mongo.min-pool-size:0}") int minPoolSize,
+            @Value("${app.mongo.max-wait-millis:5000}") long maxWaitMillis
+    ) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxPoolSize)
+                .minSize(minPoolSize)
+                .maxWaitTime(maxWaitMillis, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.file_uploader_servise.Config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.FullJitterBackoffStrategy;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(S3ClientProperties.class)
+public class S3ClientConfig {
+
+    @Bean
+    public ClientOverrideConfiguration s3OverrideConfiguration(S3ClientProperties properties) {
+        S3ClientProperties.Retry retry = properties.getRetry();
+
+        RetryPolicy retryPolicy = RetryPolicy.builder(retry.getMode())
+                .numRetries(Math.max(retry.getMaxAttempts() - 1, 0))
+                .backoffStrategy(FullJitterBackoffStrategy.builder()
+                        .baseDelay(retry.getBaseDelay())
+                        .maxBackoffTime(retry.getMaxBackoff())
+                        .build())
+                .build();
+
+        return ClientOverrideConfiguration.builder()
+                .apiCallTimeout(properties.getApiCallTimeout())
+                .apiCallAttemptTimeout(properties.getApiCallAttemptTimeout())
+                .retryPolicy(retryPolicy)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "storage.type", havingValue = "s3")
+    public SdkHttpClient s3HttpClient(
+            S3ClientProperties properties,
+            @Value("${storage.s3.max-concurrent-requests:64}") int maxConcurrentRequests
+    ) {
+        if (maxConcurrentRequests > properties.getMaxConnections()) {
+            log.warn("storage.s3.max-concurrent-requests={} exceeds storage.s3.client.max-connections={}, " +
+                            "requests will queue for connections",
+                    maxConcurrentRequests, properties.getMaxConnections());
+        }
+
+        ApacheHttpClient.Builder builder = ApacheHttpClient.builder()
+                .maxConnections(properties.getMaxConnections())
+                .connectionAcquisitionTimeout(properties.getConnectionAcquisitionTimeout())
+                .connectionTimeout(properties.getConnectionTimeout())
+                .socketTimeout(properties.getSocketTimeout())
+                .connectionMaxIdleTime(properties.getConnectionMaxIdleTime())
+                .tcpKeepAlive(properties.isTcpKeepAlive())
+                .useIdleConnectionReaper(true);
+
+        if (properties.getConnectionTimeToLive() != null) {
+            builder.connectionTimeToLive(properties.getConnectionTimeToLive());
+        }
+
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "storage.type", havingValue = "s3-async")
+    public SdkAsyncHttpClient s3AsyncHttpClient(S3ClientProperties properties) {
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(properties.getMaxConnections())
+                .maxPendingConnectionAcquires(properties.getMaxPendingConnectionAcquires())
+                .connectionAcquisitionTimeout(properties.getConnectionAcquisitionTimeout())
+                .connectionTimeout(properties.getConnectionTimeout())
+                .readTimeout(properties.getSocketTimeout())
+                .writeTimeout(properties.getSocketTimeout())
+                .connectionMaxIdleTime(properties.getConnectionMaxIdleTime())
+                .tcpKeepAlive(properties.isTcpKeepAlive())
+                .useIdleConnectionReaper(true);
+
+        if (properties.getConnectionTimeToLive() != null) {
+            builder.connectionTimeToLive(properties.getConnectionTimeToLive());
+        }
+
+        return builder.build();
+    }
+
+    @Bean
+    public InfoContributor s3ClientInfoContributor(
+            S3ClientProperties properties,
+            @Value("${storage.type}") String storageType
+    ) {
+        return info -> {
+            Map<String, Object> retry = new LinkedHashMap<>();
+            retry.put("mode", properties.getRetry().getMode());
+            retry.put("maxAttempts", properties.getRetry().getMaxAttempts());
+            retry.put("baseDelay", properties.getRetry().getBaseDelay());
+            retry.put("maxBackoff", properties.getRetry().getMaxBackoff());
+
+            Map<String, Object> client = new LinkedHashMap<>();
+            client.put("storageType", storageType);
+            client.put("maxConnections", properties.getMaxConnections());
+            client.put("maxPendingConnectionAcquires", properties.getMaxPendingConnectionAcquires());
+            client.put("connectionAcquisitionTimeout", properties.getConnectionAcquisitionTimeout());
+            client.put("connectionTimeout", properties.getConnectionTimeout());
+            client.put("socketTimeout", properties.getSocketTimeout());
+            client.put("connectionMaxIdleTime", properties.getConnectionMaxIdleTime());
+            client.put("connectionTimeToLive", properties.getConnectionTimeToLive());
+            client.put("tcpKeepAlive", properties.isTcpKeepAlive());
+            client.put("apiCallTimeout", properties.getApiCallTimeout());
+            client.put("apiCallAttemptTimeout", properties.getApiCallAttemptTimeout());
+            client.put("retry", retry);
+
+            info.withDetail("s3Client", client);
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.file_uploader_servise.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import software.amazon.awssdk.core.retry.RetryMode;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "storage.s3.client")
+public class S3ClientProperties {
+
+    private int maxConnections = 128;
+    private int maxPendingConnectionAcquires = 10_000;
+    private Duration connectionAcquisitionTimeout = Duration.ofSeconds(5);
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+    private Duration socketTimeout = Duration.ofSeconds(30);
+    private Duration connectionMaxIdleTime = Duration.ofSeconds(60);
+    private Duration connectionTimeToLive;
+    private boolean tcpKeepAlive = true;
+    private Duration apiCallTimeout = Duration.ofMinutes(5);
+    private Duration apiCallAttemptTimeout = Duration.ofSeconds(60);
+    private Retry retry = new Retry();
+
+    @Data
+    public static class Retry {
+        private RetryMode mode = RetryMode.ADAPTIVE;
+        private int maxAttempts = 4;
+        private Duration baseDelay = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(20);
+    }
+}
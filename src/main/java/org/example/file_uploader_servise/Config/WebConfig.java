@@ -0,0 +1,25 @@
+package org.example.file_uploader_servise.Config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.file_uploader_servise.controller.UploadAdmissionInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final UploadAdmissionInterceptor uploadAdmissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(uploadAdmissionInterceptor)
+                .addPathPatterns(
+                        "/api/v1/files/upload",
+                        "/api/v1/files/upload/stream",
+                        "/api/v1/files/upload/batch",
+                        "/api/v1/files/resumable/*/chunks/*"
+                );
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.file_uploader_servise.Dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Запрос статусов нескольких загрузок: по списку ID или за период")
+public class BatchStatusRequestDto {
+
+    @NotBlank
+    @Schema(description = "ID клиента")
+    private String clientId;
+
+    @Schema(description = "ID запросов загрузки")
+    private List<String> uploadRequestIds;
+
+    @Schema(description = "Начало периода создания, если список ID не задан")
+    private LocalDateTime from;
+
+    @Schema(description = "Конец периода создания, по умолчанию текущее время")
+    private LocalDateTime to;
+
+    @Positive
+    @Schema(description = "Максимальное количество результатов для периода")
+    private Integer limit;
+}
@@ -0,0 +1,22 @@
+package org.example.file_uploader_servise.Dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Статусы нескольких загрузок")
+public class BatchStatusResponseDto {
+
+    @Schema(description = "ID клиента")
+    private String clientId;
+
+    @Schema(description = "Статусы в порядке запроса или от новых к старым для периода")
+    private List<StatusResponseDto> results;
+
+    @Schema(description = "ID, которые не найдены или принадлежат другому клиенту")
+    private List<String> notFound;
+}
@@ -0,0 +1,42 @@
+package org.example.file_uploader_servise.Dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Результат пакетной загрузки")
+public class BatchUploadDto {
+
+    @Schema(description = "ID клиента")
+    private String clientId;
+
+    @Schema(description = "Количество файлов в пакете")
+    private int total;
+
+    @Schema(description = "Количество завершённых загрузок")
+    private int completed;
+
+    @Schema(description = "Количество неудачных загрузок")
+    private int failed;
+
+    @Schema(description = "Результаты по каждому файлу в порядке передачи")
+    private List<UploadRequestDto> results;
+
+    public static BatchUploadDto of(String clientId, List<UploadRequestDto> results) {
+        return BatchUploadDto.builder()
+                .clientId(clientId)
+                .total(results.size())
+                .completed((int) results.stream()
+                        .filter(result -> result.getStatus() == UploadRequestDto.Status.COMPLETED)
+                        .count())
+                .failed((int) results.stream()
+                        .filter(result -> result.getStatus() == UploadRequestDto.Status.FAILED)
+                        .count())
+                .results(results)
+                .build();
+    }
+}
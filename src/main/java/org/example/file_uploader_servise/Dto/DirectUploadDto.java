@@ -0,0 +1,39 @@
+package org.example.file_uploader_servise.Dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+import org.example.file_uploader_servise.model.UploadRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Прямая загрузка в хранилище по подписанным ссылкам")
+public class DirectUploadDto {
+
+    @Schema(description = "ID запроса")
+    private String uploadRequestId;
+
+    @Schema(description = "ID клиента")
+    private String clientId;
+
+    @Schema(description = "Ключ идемпотентности")
+    private String uploadId;
+
+    @Schema(description = "Статус")
+    private UploadRequest.Status status;
+
+    @Schema(description = "Размер файла")
+    private Long fileSize;
+
+    @Schema(description = "Ссылка для загрузки одним запросом")
+    private PresignedUrlDto upload;
+
+    @Schema(description = "Ссылки для загрузки частей, если файл загружается через multipart")
+    private List<PresignedUrlDto> parts;
+
+    @Schema(description = "Дата создания")
+    private LocalDateTime createdAt;
+}
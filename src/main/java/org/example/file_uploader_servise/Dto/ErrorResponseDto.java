@@ -49,6 +49,17 @@ public class ErrorResponseDto {
                 .build();
     }
 
+    public static ErrorResponseDto notFound(String code, String message, String path) {
+        return ErrorResponseDto.builder()
+                .timestamp(LocalDateTime.now())
+                .status(404)
+                .error("Not Found")
+                .code(code)
+                .message(message)
+                .path(path)
+                .build();
+    }
+
     public static ErrorResponseDto conflict(String message, String path) {
         return ErrorResponseDto.builder()
                 .timestamp(LocalDateTime.now())
@@ -81,4 +92,26 @@ public class ErrorResponseDto {
                 .path(path)
                 .build();
     }
+
+    public static ErrorResponseDto tooManyRequests(String message, String path) {
+        return ErrorResponseDto.builder()
+                .timestamp(LocalDateTime.now())
+                .status(429)
+                .error("Too Many Requests")
+                .code("TOO_MANY_REQUESTS")
+                .message(message)
+                .path(path)
+                .build();
+    }
+
+    public static ErrorResponseDto serviceUnavailable(String message, String path) {
+        return ErrorResponseDto.builder()
+                .timestamp(LocalDateTime.now())
+                .status(503)
+                .error("Service Unavailable")
+                .code("SERVICE_UNAVAILABLE")
+                .message(message)
+                .path(path)
+                .build();
+    }
 }
\ No newline at end of file
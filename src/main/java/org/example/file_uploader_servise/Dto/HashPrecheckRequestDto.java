@@ -0,0 +1,43 @@
+package org.example.file_uploader_servise.Dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Заявка на загрузку по известному хешу содержимого")
+public class HashPrecheckRequestDto {
+
+    @NotBlank
+    @Schema(description = "ID клиента")
+    private String clientId;
+
+    @NotBlank
+    @Schema(description = "Ключ идемпотентности")
+    private String uploadId;
+
+    @Schema(description = "Оригинальное имя файла")
+    private String filename;
+
+    @Schema(description = "MIME тип")
+    private String contentType;
+
+    @NotNull
+    @Positive
+    @Schema(description = "Размер файла в байтах")
+    private Long size;
+
+    @NotBlank
+    @Pattern(regexp = "^[a-fA-F0-9]{64}$", message = "must be a hex encoded SHA-256 digest")
+    @Schema(description = "SHA-256 содержимого в hex")
+    private String sha256;
+}
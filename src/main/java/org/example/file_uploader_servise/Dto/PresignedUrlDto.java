@@ -0,0 +1,32 @@
+package org.example.file_uploader_servise.Dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@Schema(description = "Подписанная ссылка на хранилище")
+public class PresignedUrlDto {
+
+    @Schema(description = "HTTP метод")
+    private String method;
+
+    @Schema(description = "Ссылка")
+    private String url;
+
+    @Schema(description = "Номер части для multipart загрузки")
+    private Integer partNumber;
+
+    @Schema(description = "Размер тела запроса в байтах")
+    private Long size;
+
+    @Schema(description = "Заголовки, которые нужно передать вместе с запросом")
+    private Map<String, String> headers;
+
+    @Schema(description = "Срок действия ссылки")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,84 @@
+package org.example.file_uploader_servise.Dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+import org.example.file_uploader_servise.model.UploadRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+@Data
+@Builder
+@Schema(description = "Состояние возобновляемой загрузки")
+public class ResumableUploadDto {
+
+    @Schema(description = "ID запроса")
+    private String uploadRequestId;
+
+    @Schema(description = "ID клиента")
+    private String clientId;
+
+    @Schema(description = "Ключ идемпотентности")
+    private String uploadId;
+
+    @Schema(description = "Статус")
+    private UploadRequest.Status status;
+
+    @Schema(description = "Размер файла")
+    private Long fileSize;
+
+    @Schema(description = "Размер чанка")
+    private Long chunkSize;
+
+    @Schema(description = "Общее количество чанков")
+    private Integer totalChunks;
+
+    @Schema(description = "Номера загруженных чанков")
+    private List<Integer> uploadedChunks;
+
+    @Schema(description = "Номера недостающих чанков")
+    private List<Integer> missingChunks;
+
+    @Schema(description = "Загружено байт")
+    private Long uploadedBytes;
+
+    @Schema(description = "Дата обновления")
+    private LocalDateTime updatedAt;
+
+    public static ResumableUploadDto fromUploadRequest(UploadRequest request) {
+        Map<String, UploadRequest.ChunkInfo> chunks = request.getChunks() != null
+                ? request.getChunks()
+                : Map.of();
+
+        List<Integer> uploaded = chunks.keySet().stream()
+                .map(Integer::valueOf)
+                .sorted()
+                .toList();
+
+        List<Integer> missing = IntStream.rangeClosed(1, request.getTotalChunks())
+                .filter(number -> !chunks.containsKey(String.valueOf(number)))
+                .boxed()
+                .toList();
+
+        long uploadedBytes = chunks.values().stream()
+                .mapToLong(chunk -> chunk.getSize() != null ? chunk.getSize() : 0)
+                .sum();
+
+        return ResumableUploadDto.builder()
+                .uploadRequestId(request.getId())
+                .clientId(request.getClientId())
+                .uploadId(request.getUploadId())
+                .status(request.getStatus())
+                .fileSize(request.getFileSize())
+                .chunkSize(request.getChunkSize())
+                .totalChunks(request.getTotalChunks())
+                .uploadedChunks(uploaded)
+                .missingChunks(missing)
+                .uploadedBytes(uploadedBytes)
+                .updatedAt(request.getUpdatedAt())
+                .build();
+    }
+}
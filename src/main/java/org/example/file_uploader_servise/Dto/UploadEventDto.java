@@ -0,0 +1,71 @@
+package org.example.file_uploader_servise.Dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+import org.example.file_uploader_servise.model.UploadRequest;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Schema(description = "Событие загрузки: смена статуса или прогресс передачи")
+public class UploadEventDto {
+
+    @Schema(description = "ID запроса")
+    private String uploadRequestId;
+
+    @Schema(description = "Ключ идемпотентности")
+    private String uploadId;
+
+    @Schema(description = "Статус")
+    private UploadRequest.Status status;
+
+    @Schema(description = "Передано байт")
+    private Long bytesTransferred;
+
+    @Schema(description = "Размер файла, если известен")
+    private Long totalBytes;
+
+    @Schema(description = "Прогресс в процентах, если размер известен")
+    private Integer progress;
+
+    @Schema(description = "Сообщение об ошибке")
+    private String message;
+
+    @Schema(description = "ID метаданных файла")
+    private String fileMetadataId;
+
+    @Schema(description = "Время события")
+    private LocalDateTime timestamp;
+
+    public static UploadEventDto status(UploadRequest request) {
+        return UploadEventDto.builder()
+                .uploadRequestId(request.getId())
+                .uploadId(request.getUploadId())
+                .status(request.getStatus())
+                .totalBytes(request.getFileSize())
+                .progress(request.getStatus() == UploadRequest.Status.COMPLETED ? 100 : null)
+                .message(request.getStatus() == UploadRequest.Status.FAILED ? request.getError() : null)
+                .fileMetadataId(request.getFileMetadataId())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    public static UploadEventDto progress(UploadRequest request, long bytesTransferred) {
+        Long totalBytes = request.getFileSize();
+        Integer progress = totalBytes != null && totalBytes > 0
+                ? (int) Math.min(99, bytesTransferred * 100 / totalBytes)
+                : null;
+
+        return UploadEventDto.builder()
+                .uploadRequestId(request.getId())
+                .uploadId(request.getUploadId())
+                .status(UploadRequest.Status.PROCESSING)
+                .bytesTransferred(bytesTransferred)
+                .totalBytes(totalBytes)
+                .progress(progress)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
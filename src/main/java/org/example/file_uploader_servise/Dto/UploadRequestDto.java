@@ -64,4 +64,16 @@ public class UploadRequestDto {
                 .message("Upload failed" + (request.getError() != null ? ": " + request.getError() : ""))
                 .build();
     }
+
+    public static UploadRequestDto cancelled(UploadRequest request) {
+        return UploadRequestDto.builder()
+                .status(Status.CANCELLED)
+                .uploadRequestId(request.getId())
+                .clientId(request.getClientId())
+                .uploadId(request.getUploadId())
+                .originalFilename(request.getOriginalFilename())
+                .fileSize(request.getFileSize())
+                .message("Upload cancelled")
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package org.example.file_uploader_servise.Dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@Schema(description = "Статистика загрузок, обновляется периодически")
+public class UploadStatsDto {
+
+    @Schema(description = "Оценка общего количества запросов на загрузку")
+    private long uploads;
+
+    @Schema(description = "Оценка общего количества файлов")
+    private long files;
+
+    @Schema(description = "Количество запросов на загрузку по статусам")
+    private Map<String, Long> uploadsByStatus;
+
+    @Schema(description = "Клиенты с наибольшим количеством активных загрузок")
+    private Map<String, Long> activeUploadsByClient;
+
+    @Schema(description = "Время последнего обновления статистики")
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,9 @@
+package org.example.file_uploader_servise.Repository;
+
+import org.example.file_uploader_servise.model.CleanupCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CleanupCheckpointRepository extends MongoRepository<CleanupCheckpoint, String> {
+}
@@ -2,10 +2,29 @@ package org.example.file_uploader_servise.Repository;
 
 import org.example.file_uploader_servise.model.FileMetadata;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 
 @Repository
 public interface FileMetadataRepository extends MongoRepository<FileMetadata, String> {
 
+    Optional<FileMetadata> findFirstByClientIdAndChecksumAndSizeAndStatus(
+            String clientId,
+            String checksum,
+            Long size,
+            FileMetadata.Status status
+    );
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'storage_info.url': 1 }")
+    List<FileMetadata> findStorageUrlsByIdIn(Collection<String> ids);
+
+    @Query(value = "{}", fields = "{ 'storage_info.object_key': 1 }")
+    Stream<FileMetadata> findAllStorageKeys();
+
 }
\ No newline at end of file
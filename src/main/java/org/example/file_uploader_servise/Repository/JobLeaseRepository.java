@@ -0,0 +1,9 @@
+package org.example.file_uploader_servise.Repository;
+
+import org.example.file_uploader_servise.model.JobLease;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobLeaseRepository extends MongoRepository<JobLease, String>, JobLeaseRepositoryCustom {
+}
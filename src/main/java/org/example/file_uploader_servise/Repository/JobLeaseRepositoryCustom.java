@@ -0,0 +1,15 @@
+package org.example.file_uploader_servise.Repository;
+
+import org.example.file_uploader_servise.model.JobLease;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface JobLeaseRepositoryCustom {
+
+    Optional<JobLease> tryAcquire(String job, String owner, LocalDateTime expiresAt);
+
+    boolean renew(String job, String owner, LocalDateTime expiresAt);
+
+    boolean release(String job, String owner, LocalDateTime expiresAt);
+}
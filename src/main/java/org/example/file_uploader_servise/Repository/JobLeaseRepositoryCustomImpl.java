@@ -0,0 +1,61 @@
+package org.example.file_uploader_servise.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.file_uploader_servise.model.JobLease;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class JobLeaseRepositoryCustomImpl implements JobLeaseRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<JobLease> tryAcquire(String job, String owner, LocalDateTime expiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Query query = Query.query(Criteria.where("_id").is(job).orOperator(
+                Criteria.where("expiresAt").lte(now),
+                Criteria.where("owner").is(owner)
+        ));
+
+        Update update = new Update()
+                .set("owner", owner)
+                .set("acquiredAt", now)
+                .set("renewedAt", now)
+                .set("expiresAt", expiresAt);
+
+        try {
+            return Optional.ofNullable(mongoTemplate.findAndModify(
+                    query, update, FindAndModifyOptions.options().upsert(true).returnNew(true), JobLease.class));
+        } catch (DuplicateKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean renew(String job, String owner, LocalDateTime expiresAt) {
+        Update update = new Update()
+                .set("renewedAt", LocalDateTime.now())
+                .set("expiresAt", expiresAt);
+
+        return mongoTemplate.updateFirst(ownedLease(job, owner), update, JobLease.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean release(String job, String owner, LocalDateTime expiresAt) {
+        return mongoTemplate.updateFirst(ownedLease(job, owner), new Update().set("expiresAt", expiresAt),
+                JobLease.class).getMatchedCount() > 0;
+    }
+
+    private Query ownedLease(String job, String owner) {
+        return Query.query(Criteria.where("_id").is(job).and("owner").is(owner));
+    }
+}
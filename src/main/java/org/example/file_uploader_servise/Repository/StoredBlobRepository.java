@@ -0,0 +1,18 @@
+package org.example.file_uploader_servise.Repository;
+
+import org.example.file_uploader_servise.model.StoredBlob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface StoredBlobRepository extends MongoRepository<StoredBlob, String>, StoredBlobRepositoryCustom {
+
+    Optional<StoredBlob> findByChecksum(String checksum);
+
+    @Query(value = "{}", fields = "{ 'storage_info.object_key': 1 }")
+    Stream<StoredBlob> findAllStorageKeys();
+}
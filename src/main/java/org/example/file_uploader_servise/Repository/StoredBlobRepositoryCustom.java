@@ -0,0 +1,15 @@
+package org.example.file_uploader_servise.Repository;
+
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.StoredBlob;
+
+import java.util.Optional;
+
+public interface StoredBlobRepositoryCustom {
+
+    Optional<StoredBlob> acquire(String checksum, long size);
+
+    StoredBlob register(String checksum, long size, FileMetadata.StorageInfo storageInfo);
+
+    Optional<StoredBlob> release(String checksum);
+}
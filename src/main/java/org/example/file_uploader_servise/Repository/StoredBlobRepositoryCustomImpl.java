@@ -0,0 +1,76 @@
+package org.example.file_uploader_servise.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.StoredBlob;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class StoredBlobRepositoryCustomImpl implements StoredBlobRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<StoredBlob> acquire(String checksum, long size) {
+        Query query = Query.query(Criteria.where("checksum").is(checksum)
+                .and("size").is(size)
+                .and("refCount").gt(0));
+
+        Update update = new Update()
+                .inc("refCount", 1)
+                .set("updatedAt", LocalDateTime.now());
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), StoredBlob.class));
+    }
+
+    @Override
+    public StoredBlob register(String checksum, long size, FileMetadata.StorageInfo storageInfo) {
+        Query query = Query.query(Criteria.where("checksum").is(checksum));
+
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .setOnInsert("id", UUID.randomUUID().toString())
+                .setOnInsert("size", size)
+                .setOnInsert("storageInfo", storageInfo)
+                .setOnInsert("createdAt", now)
+                .inc("refCount", 1)
+                .set("updatedAt", now);
+
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+        try {
+            return mongoTemplate.findAndModify(query, update, options, StoredBlob.class);
+        } catch (DuplicateKeyException e) {
+            return mongoTemplate.findAndModify(query, update, options, StoredBlob.class);
+        }
+    }
+
+    @Override
+    public Optional<StoredBlob> release(String checksum) {
+        Query query = Query.query(Criteria.where("checksum").is(checksum));
+
+        Update update = new Update()
+                .inc("refCount", -1)
+                .set("updatedAt", LocalDateTime.now());
+
+        StoredBlob blob = mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), StoredBlob.class);
+
+        if (blob == null || blob.getRefCount() > 0) {
+            return Optional.empty();
+        }
+
+        Query unreferenced = Query.query(Criteria.where("_id").is(blob.getId()).and("refCount").lte(0));
+        return Optional.ofNullable(mongoTemplate.findAndRemove(unreferenced, StoredBlob.class));
+    }
+}
@@ -1,17 +1,33 @@
 package org.example.file_uploader_servise.Repository;
 import org.example.file_uploader_servise.model.UploadRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UploadRequestRepository extends MongoRepository<UploadRequest, String> {
+public interface UploadRequestRepository extends MongoRepository<UploadRequest, String>, UploadRequestRepositoryCustom {
 
     Optional<UploadRequest> findByClientIdAndUploadId(String clientId, String uploadId);
 
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'status': 1, 'error': 1 }")
+    Optional<UploadRequest> findStatusById(String id);
+
+    List<UploadRequest> findByClientIdAndIdIn(String clientId, Collection<String> ids);
+
+    List<UploadRequest> findByClientIdAndCreatedAtBetween(
+            String clientId,
+            LocalDateTime from,
+            LocalDateTime to,
+            Pageable pageable
+    );
+
     List<UploadRequest> findByStatusAndUpdatedAtBefore(
             UploadRequest.Status status,
             LocalDateTime updatedAt
@@ -19,4 +35,15 @@ public interface UploadRequestRepository extends MongoRepository<UploadRequest,
 
     List<UploadRequest> findByStatus(UploadRequest.Status status);
 
+    @Query(value = "{ 'status': { $in: ?0 } }", fields = "{ 'object_key': 1, 'storage_upload_id': 1 }")
+    Stream<UploadRequest> findStorageKeysByStatusIn(Collection<UploadRequest.Status> statuses);
+
+    List<UploadRequest> findByClientIdInAndUpdatedAtAfter(Collection<String> clientIds, LocalDateTime updatedAt);
+
+    List<UploadRequest> findByStatusAndDirectUploadAndUpdatedAtBefore(
+            UploadRequest.Status status,
+            Boolean directUpload,
+            LocalDateTime updatedAt
+    );
+
 }
\ No newline at end of file
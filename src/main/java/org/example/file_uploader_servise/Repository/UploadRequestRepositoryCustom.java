@@ -0,0 +1,40 @@
+package org.example.file_uploader_servise.Repository;
+
+import org.example.file_uploader_servise.model.UploadRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface UploadRequestRepositoryCustom {
+
+    Claim claim(UploadRequest candidate);
+
+    List<Claim> claimAll(List<UploadRequest> candidates);
+
+    boolean recordChunk(String uploadRequestId, int chunkNumber, UploadRequest.ChunkInfo chunk);
+
+    int markProcessing(Map<String, LocalDateTime> startedAt);
+
+    boolean markCompleted(String uploadRequestId, String fileMetadataId, String checksum, Long fileSize);
+
+    boolean markFailed(String uploadRequestId, String error);
+
+    boolean markCancelled(String uploadRequestId);
+
+    boolean touch(String uploadRequestId);
+
+    List<UploadRequest> findCleanupPage(
+            Collection<UploadRequest.Status> statuses,
+            LocalDateTime updatedBefore,
+            LocalDateTime afterUpdatedAt,
+            String afterId,
+            int limit
+    );
+
+    List<UploadRequest> failStalled(Collection<String> uploadRequestIds, LocalDateTime updatedBefore, String error);
+
+    record Claim(UploadRequest request, boolean created) {
+    }
+}
@@ -0,0 +1,252 @@
+package org.example.file_uploader_servise.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class UploadRequestRepositoryCustomImpl implements UploadRequestRepositoryCustom {
+
+    private static final Set<String> CLAIM_KEY_FIELDS = Set.of("client_id", "upload_id");
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Claim claim(UploadRequest candidate) {
+        Query query = claimQuery(candidate);
+        Update update = claimUpdate(candidate);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+        UploadRequest claimed;
+        try {
+            claimed = mongoTemplate.findAndModify(query, update, options, UploadRequest.class);
+        } catch (DuplicateKeyException e) {
+            claimed = mongoTemplate.findAndModify(query, update, options, UploadRequest.class);
+        }
+
+        return new Claim(claimed, candidate.getId().equals(claimed.getId()));
+    }
+
+    @Override
+    public List<Claim> claimAll(List<UploadRequest> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UploadRequest.class);
+        candidates.forEach(candidate -> bulk.upsert(claimQuery(candidate), claimUpdate(candidate)));
+
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream()
+                    .allMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+
+        Map<String, List<String>> uploadIdsByClient = candidates.stream()
+                .collect(Collectors.groupingBy(
+                        UploadRequest::getClientId,
+                        LinkedHashMap::new,
+                        Collectors.mapping(UploadRequest::getUploadId, Collectors.toList())
+                ));
+
+        Criteria criteria = new Criteria().orOperator(uploadIdsByClient.entrySet().stream()
+                .map(entry -> Criteria.where("clientId").is(entry.getKey()).and("uploadId").in(entry.getValue()))
+                .toList());
+
+        Map<List<String>, UploadRequest> claimed = new HashMap<>();
+        mongoTemplate.find(Query.query(criteria), UploadRequest.class)
+                .forEach(request -> claimed.put(claimKey(request), request));
+
+        return candidates.stream()
+                .map(candidate -> {
+                    UploadRequest request = claimed.get(claimKey(candidate));
+                    if (request == null) {
+                        return claim(candidate);
+                    }
+                    return new Claim(request, candidate.getId().equals(request.getId()));
+                })
+                .toList();
+    }
+
+    @Override
+    public boolean recordChunk(String uploadRequestId, int chunkNumber, UploadRequest.ChunkInfo chunk) {
+        Update update = new Update()
+                .set("chunks." + chunkNumber, chunk)
+                .set("status", UploadRequest.Status.PROCESSING)
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(activeRequest(uploadRequestId), update, UploadRequest.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public int markProcessing(Map<String, LocalDateTime> startedAt) {
+        if (startedAt.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UploadRequest.class);
+        startedAt.forEach((uploadRequestId, timestamp) -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(uploadRequestId)
+                        .and("status").is(UploadRequest.Status.PENDING)),
+                new Update()
+                        .set("status", UploadRequest.Status.PROCESSING)
+                        .set("updatedAt", timestamp)
+        ));
+
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public boolean markCompleted(String uploadRequestId, String fileMetadataId, String checksum, Long fileSize) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", UploadRequest.Status.COMPLETED)
+                .set("fileMetadataId", fileMetadataId)
+                .set("completedAt", now)
+                .set("updatedAt", now);
+
+        if (checksum != null) {
+            update.set("checksum", checksum);
+        }
+        if (fileSize != null) {
+            update.set("fileSize", fileSize);
+        }
+
+        return mongoTemplate.updateFirst(activeRequest(uploadRequestId), update, UploadRequest.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean markFailed(String uploadRequestId, String error) {
+        Update update = new Update()
+                .set("status", UploadRequest.Status.FAILED)
+                .set("error", error)
+                .set("updatedAt", LocalDateTime.now())
+                .inc("attemptCount", 1);
+
+        return mongoTemplate.updateFirst(activeRequest(uploadRequestId), update, UploadRequest.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean markCancelled(String uploadRequestId) {
+        Update update = new Update()
+                .set("status", UploadRequest.Status.CANCELLED)
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(activeRequest(uploadRequestId), update, UploadRequest.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean touch(String uploadRequestId) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(activeRequest(uploadRequestId), update, UploadRequest.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public List<UploadRequest> findCleanupPage(
+            Collection<UploadRequest.Status> statuses,
+            LocalDateTime updatedBefore,
+            LocalDateTime afterUpdatedAt,
+            String afterId,
+            int limit
+    ) {
+        Criteria criteria = Criteria.where("status").in(statuses).and("updatedAt").lt(updatedBefore);
+
+        if (afterUpdatedAt != null) {
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("updatedAt").gt(afterUpdatedAt),
+                    Criteria.where("updatedAt").is(afterUpdatedAt).and("_id").gt(afterId)
+            ));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt", "_id"))
+                .limit(limit);
+        query.fields().include("status", "clientId", "uploadId", "fileMetadataId", "updatedAt");
+
+        return mongoTemplate.find(query, UploadRequest.class);
+    }
+
+    @Override
+    public List<UploadRequest> failStalled(Collection<String> uploadRequestIds, LocalDateTime updatedBefore, String error) {
+        Query query = Query.query(Criteria.where("_id").in(uploadRequestIds)
+                .and("status").in(UploadRequest.Status.PENDING, UploadRequest.Status.PROCESSING)
+                .and("directUpload").ne(true)
+                .and("updatedAt").lt(updatedBefore));
+
+        LocalDateTime failedAt = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", UploadRequest.Status.FAILED)
+                .set("error", error)
+                .set("updatedAt", failedAt)
+                .inc("attemptCount", 1);
+
+        if (mongoTemplate.updateMulti(query, update, UploadRequest.class).getModifiedCount() == 0) {
+            return List.of();
+        }
+
+        Query failed = Query.query(Criteria.where("_id").in(uploadRequestIds)
+                .and("status").is(UploadRequest.Status.FAILED)
+                .and("error").is(error)
+                .and("updatedAt").is(failedAt));
+        failed.fields().include("clientId", "uploadId", "fileSize", "status", "error", "objectKey", "storageUploadId",
+                "updatedAt");
+
+        return mongoTemplate.find(failed, UploadRequest.class);
+    }
+
+    private Query claimQuery(UploadRequest candidate) {
+        return Query.query(Criteria.where("clientId").is(candidate.getClientId())
+                .and("uploadId").is(candidate.getUploadId()));
+    }
+
+    private Update claimUpdate(UploadRequest candidate) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(candidate, document);
+
+        Update update = new Update();
+        document.forEach((field, value) -> {
+            if (!CLAIM_KEY_FIELDS.contains(field)) {
+                update.setOnInsert(field, value);
+            }
+        });
+        return update;
+    }
+
+    private List<String> claimKey(UploadRequest request) {
+        return List.of(request.getClientId(), request.getUploadId());
+    }
+
+    private Query activeRequest(String uploadRequestId) {
+        return Query.query(Criteria.where("_id").is(uploadRequestId)
+                .and("status").in(UploadRequest.Status.PENDING, UploadRequest.Status.PROCESSING));
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.file_uploader_servise.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Dto.DirectUploadDto;
+import org.example.file_uploader_servise.Dto.PresignedUrlDto;
+import org.example.file_uploader_servise.Dto.UploadRequestDto;
+import org.example.file_uploader_servise.Repository.FileMetadataRepository;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.exception.FileUploadException;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.example.file_uploader_servise.service.DirectUploadService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/files/direct")
+@RequiredArgsConstructor
+@Validated
+@ConditionalOnExpression("${app.upload.direct.enabled:false} and '${storage.type:s3}'.startsWith('s3')")
+@Tag(name = "Direct Upload", description = "API для загрузки и скачивания напрямую из хранилища по подписанным ссылкам")
+public class DirectUploadController {
+
+    private final DirectUploadService directUploadService;
+    private final UploadRequestRepository uploadRequestRepository;
+    private final FileMetadataRepository fileMetadataRepository;
+
+
+    @PostMapping
+    @Operation(
+            summary = "Начать прямую загрузку",
+            description = "Возвращает подписанные ссылки PUT. Большие файлы загружаются частями"
+    )
+    public ResponseEntity<DirectUploadDto> initiate(
+            @RequestParam String clientId,
+            @RequestParam String uploadId,
+            @RequestParam String filename,
+            @RequestParam long fileSize,
+            @RequestParam(required = false) String contentType
+    ) {
+
+        if (clientId.isBlank() || uploadId.isBlank()) {
+            throw new FileUploadException("ClientId and uploadId are required");
+        }
+
+        Optional<UploadRequest> existing =
+                uploadRequestRepository.findByClientIdAndUploadId(clientId, uploadId);
+
+        if (existing.isPresent()) {
+            return existingSession(existing.get());
+        }
+
+        UploadRequestRepository.Claim claim = directUploadService.initiate(
+                clientId,
+                uploadId,
+                filename,
+                contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                fileSize
+        );
+
+        if (!claim.created()) {
+            return existingSession(claim.request());
+        }
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(directUploadService.describe(claim.request()));
+    }
+
+
+    @GetMapping("/{uploadRequestId}")
+    @Operation(summary = "Получить новые ссылки для прямой загрузки")
+    public ResponseEntity<DirectUploadDto> getSession(
+            @PathVariable String uploadRequestId,
+            @RequestParam String clientId
+    ) {
+
+        return existingSession(findOwnedRequest(uploadRequestId, clientId));
+    }
+
+
+    @PostMapping("/{uploadRequestId}/complete")
+    @Operation(
+            summary = "Подтвердить прямую загрузку",
+            description = "Проверяет объект в хранилище и завершает загрузку"
+    )
+    public ResponseEntity<UploadRequestDto> complete(
+            @PathVariable String uploadRequestId,
+            @RequestParam String clientId
+    ) {
+
+        UploadRequest request = findOwnedRequest(uploadRequestId, clientId);
+
+        return ResponseEntity.ok(directUploadService.complete(request));
+    }
+
+
+    @GetMapping("/{uploadRequestId}/download-url")
+    @Operation(summary = "Получить подписанную ссылку на скачивание")
+    public ResponseEntity<PresignedUrlDto> downloadUrl(
+            @PathVariable String uploadRequestId,
+            @RequestParam String clientId
+    ) {
+
+        UploadRequest request = findOwnedRequest(uploadRequestId, clientId);
+
+        if (request.getStatus() != UploadRequest.Status.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is not completed");
+        }
+
+        FileMetadata metadata = fileMetadataRepository.findById(request.getFileMetadataId())
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.INTERNAL_SERVER_ERROR, "File metadata not found"));
+
+        return ResponseEntity.ok(directUploadService.presignDownload(metadata));
+    }
+
+
+    private ResponseEntity<DirectUploadDto> existingSession(UploadRequest request) {
+        if (!request.isDirect()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "UploadId is already used by a non-direct upload");
+        }
+        return ResponseEntity.ok(directUploadService.describe(request));
+    }
+
+    private UploadRequest findOwnedRequest(String uploadRequestId, String clientId) {
+        UploadRequest request = uploadRequestRepository.findById(uploadRequestId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+
+        if (!request.getClientId().equals(clientId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+
+        return request;
+    }
+}
@@ -5,26 +5,67 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Dto.BatchStatusRequestDto;
+import org.example.file_uploader_servise.Dto.BatchStatusResponseDto;
+import org.example.file_uploader_servise.Dto.BatchUploadDto;
+import org.example.file_uploader_servise.Dto.ErrorResponseDto;
+import org.example.file_uploader_servise.Dto.HashPrecheckRequestDto;
 import org.example.file_uploader_servise.Dto.UploadRequestDto;
+import org.example.file_uploader_servise.Dto.UploadStatsDto;
 import org.example.file_uploader_servise.Repository.FileMetadataRepository;
 import org.example.file_uploader_servise.Repository.UploadRequestRepository;
 import org.example.file_uploader_servise.exception.FileUploadException;
+import org.example.file_uploader_servise.exception.UploadRejectedException;
 import org.example.file_uploader_servise.model.FileMetadata;
 import org.example.file_uploader_servise.model.UploadRequest;
 import org.example.file_uploader_servise.service.FileUploadService;
-
+import org.example.file_uploader_servise.service.ResumableUploadService;
+import org.example.file_uploader_servise.service.StagedFile;
+import org.example.file_uploader_servise.service.UploadAdmissionService;
+import org.example.file_uploader_servise.service.UploadEventService;
+import org.example.file_uploader_servise.service.UploadRecordCache;
+import org.example.file_uploader_servise.service.UploadStagingService;
+import org.example.file_uploader_servise.service.UploadStatsService;
+import org.example.file_uploader_servise.service.UploadStatusService;
+import org.example.file_uploader_servise.service.storage.StorageService;
+
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestController
@@ -34,28 +75,61 @@ import java.util.*;
 @Tag(name = "File Upload", description = "API для асинхронной загрузки файлов")
 public class FileUploadController {
 
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final FileUploadService fileUploadService;
+    private final ResumableUploadService resumableUploadService;
+    private final UploadStagingService uploadStagingService;
+    private final UploadAdmissionService uploadAdmissionService;
+    private final UploadStatusService uploadStatusService;
+    private final UploadStatsService uploadStatsService;
+    private final UploadEventService uploadEventService;
+    private final UploadRecordCache uploadRecordCache;
+    private final StorageService storageService;
     private final UploadRequestRepository uploadRequestRepository;
     private final FileMetadataRepository fileMetadataRepository;
 
+    @Qualifier("downloadExecutor")
+    private final AsyncTaskExecutor downloadExecutor;
+
+    @Value("${spring.servlet.multipart.max-file-size:100MB}")
+    private DataSize maxFileSize;
+
+    @Value("${spring.servlet.multipart.max-request-size:100MB}")
+    private DataSize maxRequestSize;
+
+    @Value("${app.upload.batch.max-files:100}")
+    private int maxBatchFiles;
+
+    @Value("${app.download.timeout-millis:600000}")
+    private long downloadTimeoutMillis;
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
             summary = "Загрузить файл",
-            description = "Асинхронная загрузка файла с идемпотентностью"
+            description = "Асинхронная загрузка файла с идемпотентностью. " +
+                    "Заголовок X-Client-Id обязателен и должен совпадать с clientId: " +
+                    "по нему считаются лимиты одновременных загрузок клиента"
     )
     @ApiResponses({
             @ApiResponse(responseCode = "202", description = "Запрос принят",
                     content = @Content(schema = @Schema(implementation = UploadRequestDto.class))),
             @ApiResponse(responseCode = "400", description = "Неверный запрос"),
             @ApiResponse(responseCode = "413", description = "Файл слишком большой"),
-            @ApiResponse(responseCode = "500", description = "Ошибка сервера")
+            @ApiResponse(responseCode = "429", description = "Превышен лимит одновременных загрузок клиента"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера"),
+            @ApiResponse(responseCode = "503", description = "Сервис перегружен")
     })
     public ResponseEntity<UploadRequestDto> uploadFile(
+            @RequestHeader(UploadAdmissionInterceptor.CLIENT_ID_HEADER) String clientIdHeader,
             @RequestParam String clientId,
             @RequestParam String uploadId,
             @RequestParam MultipartFile file,
-            @RequestParam(required = false) Map<String, String> metadata
+            @RequestParam(required = false) Map<String, String> metadata,
+            HttpServletRequest httpRequest
     ) {
 
         String traceId = UUID.randomUUID().toString();
@@ -63,36 +137,50 @@ public class FileUploadController {
 
         try {
             validateUploadParameters(clientId, uploadId, file);
+            validateClientHeader(clientIdHeader, clientId);
 
-            Optional<UploadRequest> existing =
-                    uploadRequestRepository.findByClientIdAndUploadId(clientId, uploadId);
-
-            if (existing.isPresent()) {
-                return handleExistingRequest(existing.get());
-            }
-
-            UploadRequest request = uploadRequestRepository.save(
-                    UploadRequest.builder()
-                            .id(UUID.randomUUID().toString())
-                            .clientId(clientId)
-                            .uploadId(uploadId)
-                            .originalFilename(file.getOriginalFilename())
-                            .contentType(file.getContentType())
-                            .fileSize(file.getSize())
-                            .status(UploadRequest.Status.PENDING)
-                            .attemptCount(1)
-                            .createdAt(LocalDateTime.now())
-                            .updatedAt(LocalDateTime.now())
-                            .build()
+            Optional<UploadRequest> finished = uploadRecordCache.findFinished(clientId, uploadId);
+            if (finished.isPresent()) {
+                return handleExistingRequest(finished.get());
+            }
+
+            UploadRequestRepository.Claim claim = uploadRequestRepository.claim(
+                    newUploadRequest(clientId, uploadId, file.getOriginalFilename(),
+                            file.getContentType(), file.getSize())
             );
 
-            UploadRequestDto response =
-                    fileUploadService.processUploadSync(clientId, uploadId, file, metadata, request.getId());
+            if (!claim.created()) {
+                return handleExistingRequest(claim.request());
+            }
+
+            UploadRequest request = claim.request();
+
+            StagedFile stagedFile;
+            try {
+                stagedFile = uploadStagingService.stage(file);
+            } catch (RuntimeException e) {
+                uploadRequestRepository.deleteById(request.getId());
+                throw e;
+            }
+
+            UploadAdmissionService.Permit permit = uploadAdmissionService.takeOver(httpRequest);
+            try {
+                fileUploadService.processUploadAsync(request, stagedFile, metadata)
+                        .whenComplete((result, ex) -> permit.close());
+            } catch (RejectedExecutionException e) {
+                log.warn("[{}] Upload executor saturated, rejecting: requestId={}", traceId, request.getId());
+                uploadRequestRepository.deleteById(request.getId());
+                uploadStagingService.discard(stagedFile);
+                permit.close();
+                throw uploadAdmissionService.saturated();
+            }
 
-            return ResponseEntity.accepted().body(response);
+            return ResponseEntity.accepted().body(UploadRequestDto.processing(request));
 
         } catch (FileUploadException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (UploadRejectedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("[{}] Upload failed", traceId, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Upload failed");
@@ -100,6 +188,222 @@ public class FileUploadController {
     }
 
 
+    @PostMapping(value = "/upload/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Потоковая загрузка файла",
+            description = "Загрузка без промежуточного сохранения на диск. " +
+                    "Поля clientId и uploadId должны идти в теле запроса до части file. " +
+                    "Заголовок X-Client-Id обязателен и должен совпадать с clientId"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Файл загружен",
+                    content = @Content(schema = @Schema(implementation = UploadRequestDto.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "413", description = "Файл слишком большой"),
+            @ApiResponse(responseCode = "500", description = "Ошибка сервера")
+    })
+    public ResponseEntity<UploadRequestDto> uploadFileStreaming(
+            @RequestHeader(UploadAdmissionInterceptor.CLIENT_ID_HEADER) String clientIdHeader,
+            HttpServletRequest httpRequest
+    ) throws IOException {
+
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> parser = new JakartaServletFileUpload<>();
+        parser.setFileSizeMax(maxFileSize.toBytes());
+        parser.setSizeMax(maxRequestSize.toBytes());
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        FileItemInputIterator items = parser.getItemIterator(httpRequest);
+
+        while (items.hasNext()) {
+            FileItemInput item = items.next();
+
+            if (item.isFormField()) {
+                try (InputStream in = item.getInputStream()) {
+                    fields.put(item.getFieldName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+                continue;
+            }
+
+            if (!"file".equals(item.getFieldName())) {
+                continue;
+            }
+
+            String clientId = fields.remove("clientId");
+            String uploadId = fields.remove("uploadId");
+            validateUploadIdentity(clientId, uploadId);
+            validateClientHeader(clientIdHeader, clientId);
+
+            Optional<UploadRequest> finished = uploadRecordCache.findFinished(clientId, uploadId);
+            if (finished.isPresent()) {
+                return handleExistingRequest(finished.get());
+            }
+
+            log.info("Streaming upload started: clientId={}, uploadId={}", clientId, uploadId);
+
+            String contentType = item.getContentType() != null
+                    ? item.getContentType()
+                    : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+
+            UploadRequestRepository.Claim claim = uploadRequestRepository.claim(
+                    newUploadRequest(clientId, uploadId, item.getName(), contentType, null)
+            );
+
+            if (!claim.created()) {
+                return handleExistingRequest(claim.request());
+            }
+
+            UploadRequest request = claim.request();
+
+            try (InputStream in = item.getInputStream()) {
+                return ResponseEntity.ok(fileUploadService.uploadStream(
+                        request,
+                        item.getName(),
+                        contentType,
+                        in,
+                        fields
+                ));
+            }
+        }
+
+        throw new FileUploadException("File is required");
+    }
+
+
+    @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Пакетная загрузка файлов",
+            description = "Загрузка нескольких файлов одним запросом. " +
+                    "Значения uploadIds передаются в том же порядке, что и части files. " +
+                    "Заголовок X-Client-Id обязателен и должен совпадать с clientId"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Результаты по каждому файлу",
+                    content = @Content(schema = @Schema(implementation = BatchUploadDto.class))),
+            @ApiResponse(responseCode = "400", description = "Неверный запрос"),
+            @ApiResponse(responseCode = "413", description = "Пакет слишком большой"),
+            @ApiResponse(responseCode = "429", description = "Превышен лимит одновременных загрузок клиента"),
+            @ApiResponse(responseCode = "503", description = "Сервис перегружен")
+    })
+    public CompletableFuture<ResponseEntity<BatchUploadDto>> uploadBatch(
+            @RequestHeader(UploadAdmissionInterceptor.CLIENT_ID_HEADER) String clientIdHeader,
+            @RequestParam String clientId,
+            @RequestParam List<String> uploadIds,
+            @RequestParam List<MultipartFile> files,
+            HttpServletRequest httpRequest
+    ) {
+
+        validateClientHeader(clientIdHeader, clientId);
+        if (files.isEmpty()) {
+            throw new FileUploadException("At least one file is required");
+        }
+        if (files.size() > maxBatchFiles) {
+            throw new FileUploadException("Batch exceeds " + maxBatchFiles + " files");
+        }
+        if (uploadIds.size() != files.size()) {
+            throw new FileUploadException("Number of uploadIds must match number of files");
+        }
+        if (new HashSet<>(uploadIds).size() != uploadIds.size()) {
+            throw new FileUploadException("UploadIds must be unique within a batch");
+        }
+
+        List<UploadRequest> candidates = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            validateUploadParameters(clientId, uploadIds.get(i), file);
+            candidates.add(newUploadRequest(clientId, uploadIds.get(i), file.getOriginalFilename(),
+                    file.getContentType(), file.getSize()));
+        }
+
+        log.info("Batch upload started: clientId={}, files={}", clientId, files.size());
+
+        List<UploadRequestRepository.Claim> claims = uploadRequestRepository.claimAll(candidates);
+
+        UploadRequestDto[] results = new UploadRequestDto[claims.size()];
+        Map<Integer, UploadRequest> existing = new LinkedHashMap<>();
+        List<Integer> positions = new ArrayList<>();
+        List<FileUploadService.BatchItem> items = new ArrayList<>();
+
+        for (int i = 0; i < claims.size(); i++) {
+            UploadRequestRepository.Claim claim = claims.get(i);
+            if (!claim.created()) {
+                existing.put(i, claim.request());
+                continue;
+            }
+
+            try {
+                items.add(new FileUploadService.BatchItem(claim.request(), uploadStagingService.stage(files.get(i))));
+                positions.add(i);
+            } catch (RuntimeException e) {
+                log.warn("Failed to stage batch item: requestId={}, error={}", claim.request().getId(), e.getMessage());
+                uploadRequestRepository.deleteById(claim.request().getId());
+                claim.request().setError(e.getMessage());
+                results[i] = UploadRequestDto.failed(claim.request());
+            }
+        }
+
+        describeExisting(existing).forEach((position, dto) -> results[position] = dto);
+
+        UploadAdmissionService.Permit permit = uploadAdmissionService.takeOver(httpRequest);
+
+        return fileUploadService.processBatchAsync(items)
+                .whenComplete((uploaded, ex) -> permit.close())
+                .thenApply(uploaded -> {
+                    for (int i = 0; i < uploaded.size(); i++) {
+                        results[positions.get(i)] = uploaded.get(i);
+                    }
+                    return ResponseEntity.ok(BatchUploadDto.of(clientId, Arrays.asList(results)));
+                });
+    }
+
+
+    @PostMapping(value = "/precheck", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Проверить содержимое по хешу",
+            description = "Если клиент уже загружал файл с таким SHA-256 и размером, " +
+                    "загрузка завершается сразу без передачи содержимого"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Загрузка завершена без передачи данных",
+                    content = @Content(schema = @Schema(implementation = UploadRequestDto.class))),
+            @ApiResponse(responseCode = "404", description = "Содержимое неизвестно, нужна обычная загрузка",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<?> precheck(
+            @Valid @RequestBody HashPrecheckRequestDto precheck,
+            HttpServletRequest httpRequest
+    ) {
+
+        Optional<UploadRequest> existing =
+                uploadRecordCache.findByClientIdAndUploadId(precheck.getClientId(), precheck.getUploadId());
+
+        if (existing.isPresent()) {
+            return handleExistingRequest(existing.get());
+        }
+
+        Optional<UploadRequestDto> completed;
+        try {
+            completed = fileUploadService.completeFromKnownContent(precheck);
+        } catch (DuplicateKeyException e) {
+            Optional<UploadRequest> concurrent =
+                    uploadRequestRepository.findByClientIdAndUploadId(precheck.getClientId(), precheck.getUploadId());
+            if (concurrent.isEmpty()) {
+                throw e;
+            }
+            return handleExistingRequest(concurrent.get());
+        }
+
+        if (completed.isPresent()) {
+            return ResponseEntity.ok(completed.get());
+        }
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponseDto.notFound(
+                "CONTENT_NOT_FOUND",
+                "Content is not stored yet, upload the file",
+                httpRequest.getRequestURI()
+        ));
+    }
+
+
     @GetMapping("/{uploadRequestId}")
     @Operation(summary = "Получить статус загрузки")
     public ResponseEntity<UploadRequestDto> getUploadInfo(
@@ -107,7 +411,7 @@ public class FileUploadController {
             @RequestParam String clientId
     ) {
 
-        UploadRequest request = uploadRequestRepository.findById(uploadRequestId)
+        UploadRequest request = uploadRecordCache.findById(uploadRequestId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
 
         if (!request.getClientId().equals(clientId)) {
@@ -122,6 +426,150 @@ public class FileUploadController {
     }
 
 
+    @PostMapping(value = "/status", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Получить статусы нескольких загрузок",
+            description = "По списку ID запросов или по периоду создания для клиента"
+    )
+    public ResponseEntity<BatchStatusResponseDto> getUploadStatuses(
+            @Valid @RequestBody BatchStatusRequestDto query
+    ) {
+
+        return ResponseEntity.ok(uploadStatusService.findStatuses(query));
+    }
+
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Подписаться на события всех загрузок клиента",
+            description = "Server-Sent Events: status при смене статуса и progress с количеством переданных байт"
+    )
+    public SseEmitter streamClientEvents(@RequestParam String clientId) {
+
+        if (clientId.isBlank()) {
+            throw new FileUploadException("ClientId is required");
+        }
+
+        return uploadEventService.subscribeClient(clientId);
+    }
+
+
+    @GetMapping(value = "/{uploadRequestId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Подписаться на события загрузки",
+            description = "Server-Sent Events: текущий статус сразу после подключения, затем status и progress. " +
+                    "Поток закрывается после перехода в конечный статус"
+    )
+    public SseEmitter streamUploadEvents(
+            @PathVariable String uploadRequestId,
+            @RequestParam String clientId
+    ) {
+
+        UploadRequest request = uploadRequestRepository.findById(uploadRequestId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+
+        if (!request.getClientId().equals(clientId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+
+        return uploadEventService.subscribe(request);
+    }
+
+
+    @GetMapping("/{uploadRequestId}/content")
+    @Operation(
+            summary = "Скачать файл",
+            description = "Потоковая выдача содержимого с поддержкой Range и If-None-Match"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Содержимое файла"),
+            @ApiResponse(responseCode = "206", description = "Запрошенный диапазон"),
+            @ApiResponse(responseCode = "304", description = "Содержимое не изменилось"),
+            @ApiResponse(responseCode = "404", description = "Загрузка не найдена"),
+            @ApiResponse(responseCode = "409", description = "Загрузка ещё не завершена"),
+            @ApiResponse(responseCode = "416", description = "Диапазон вне файла")
+    })
+    public WebAsyncTask<ResponseEntity<Void>> downloadFile(
+            @PathVariable String uploadRequestId,
+            @RequestParam String clientId,
+            @RequestHeader HttpHeaders requestHeaders,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse
+    ) {
+
+        UploadRequest request = uploadRecordCache.findById(uploadRequestId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+
+        if (!request.getClientId().equals(clientId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+
+        if (request.getStatus() != UploadRequest.Status.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is not completed");
+        }
+
+        FileMetadata metadata = uploadRecordCache.findMetadata(request.getFileMetadataId())
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.INTERNAL_SERVER_ERROR, "File metadata not found"));
+
+        FileMetadata.StorageInfo storageInfo = metadata.getStorageInfo();
+        String eTag = quoteETag(storageInfo.getETag());
+        long size = metadata.getSize();
+
+        if (eTag != null && matchesETag(requestHeaders.getIfNoneMatch(), eTag)) {
+            return download(() -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+        headers.setContentType(MediaType.parseMediaType(metadata.getContentType() != null
+                ? metadata.getContentType()
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(metadata.getOriginalFilename(), StandardCharsets.UTF_8)
+                .build());
+
+        HttpRange range = resolveRange(requestHeaders, eTag, size);
+        HttpStatus status = range != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK;
+        long offset = range != null ? range.getRangeStart(size) : 0;
+        long length = range != null ? range.getRangeEnd(size) - offset + 1 : size;
+        if (range != null) {
+            headers.set(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + offset + "-" + (offset + length - 1) + "/" + size);
+        }
+        headers.setContentLength(length);
+
+        if (length == 0) {
+            return download(() -> ResponseEntity.status(status).headers(headers).build());
+        }
+
+        Optional<Path> localPath = storageService.resolveLocalPath(storageInfo.getBucket(), storageInfo.getKey());
+        if (localPath.isPresent() && Boolean.TRUE.equals(httpRequest.getAttribute(SENDFILE_SUPPORT))) {
+            httpRequest.setAttribute(SENDFILE_FILENAME, localPath.get().toString());
+            httpRequest.setAttribute(SENDFILE_START, offset);
+            httpRequest.setAttribute(SENDFILE_END, offset + length);
+            return download(() -> ResponseEntity.status(status).headers(headers).build());
+        }
+
+        return download(() -> {
+            try (InputStream in = storageService.openStream(
+                    storageInfo.getBucket(), storageInfo.getKey(), offset, length)) {
+                httpResponse.setStatus(status.value());
+                headers.forEach((name, values) -> values.forEach(value -> httpResponse.addHeader(name, value)));
+                in.transferTo(httpResponse.getOutputStream());
+            }
+            return null;
+        });
+    }
+
+    private WebAsyncTask<ResponseEntity<Void>> download(Callable<ResponseEntity<Void>> task) {
+        return new WebAsyncTask<>(downloadTimeoutMillis, downloadExecutor, task);
+    }
+
+
     @DeleteMapping("/{uploadRequestId}")
     @Operation(summary = "Отменить загрузку")
     public ResponseEntity<Void> cancelUpload(
@@ -141,9 +589,12 @@ public class FileUploadController {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Cannot cancel in this state");
         }
 
-        request.setStatus(UploadRequest.Status.CANCELLED);
-        request.setUpdatedAt(LocalDateTime.now());
-        uploadRequestRepository.save(request);
+        if (!uploadRequestRepository.markCancelled(request.getId())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cannot cancel in this state");
+        }
+        request.markCancelled();
+        uploadEventService.publishStatus(request);
+        resumableUploadService.abort(request);
 
         return ResponseEntity.noContent().build();
     }
@@ -155,28 +606,126 @@ public class FileUploadController {
         Map<String, Object> health = new HashMap<>();
         health.put("status", "UP");
         health.put("timestamp", LocalDateTime.now());
-        health.put("uploads", uploadRequestRepository.count());
-        health.put("files", fileMetadataRepository.count());
+        uploadStatsService.current().ifPresent(stats -> {
+            health.put("uploads", stats.getUploads());
+            health.put("files", stats.getFiles());
+        });
         return ResponseEntity.ok(health);
     }
 
 
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Получить статистику загрузок",
+            description = "Оценочные счётчики, обновляемые периодически в фоне"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Статистика",
+                    content = @Content(schema = @Schema(implementation = UploadStatsDto.class))),
+            @ApiResponse(responseCode = "503", description = "Статистика ещё не собрана")
+    })
+    public ResponseEntity<UploadStatsDto> stats() {
+        return uploadStatsService.current()
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE, "Statistics are not collected yet"));
+    }
+
+
     private void validateUploadParameters(String clientId, String uploadId, MultipartFile file) {
+        validateUploadIdentity(clientId, uploadId);
+        if (file == null || file.isEmpty()) {
+            throw new FileUploadException("File is required");
+        }
+        if (file.getSize() > 100 * 1024 * 1024) {
+            throw new FileUploadException("File size exceeds 100MB");
+        }
+    }
+
+    private void validateUploadIdentity(String clientId, String uploadId) {
         if (clientId == null || clientId.isBlank()) {
             throw new FileUploadException("ClientId is required");
         }
         if (uploadId == null || uploadId.isBlank()) {
             throw new FileUploadException("UploadId is required");
         }
-        if (file == null || file.isEmpty()) {
-            throw new FileUploadException("File is required");
+    }
+
+    private void validateClientHeader(String clientIdHeader, String clientId) {
+        if (!clientIdHeader.equals(clientId)) {
+            throw new FileUploadException(UploadAdmissionInterceptor.CLIENT_ID_HEADER + " must match clientId");
         }
-        if (file.getSize() > 100 * 1024 * 1024) {
-            throw new FileUploadException("File size exceeds 100MB");
+    }
+
+    private UploadRequest newUploadRequest(
+            String clientId,
+            String uploadId,
+            String originalFilename,
+            String contentType,
+            Long fileSize
+    ) {
+        return UploadRequest.builder()
+                .id(UUID.randomUUID().toString())
+                .clientId(clientId)
+                .uploadId(uploadId)
+                .originalFilename(originalFilename)
+                .contentType(contentType)
+                .fileSize(fileSize)
+                .status(UploadRequest.Status.PENDING)
+                .attemptCount(1)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private HttpRange resolveRange(HttpHeaders requestHeaders, String eTag, long size) {
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (ranges.size() != 1) {
+            return null;
+        }
+
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            return null;
+        }
+
+        HttpRange range = ranges.get(0);
+        try {
+            if (size == 0 || range.getRangeStart(size) >= size) {
+                throw new IllegalArgumentException("Range starts beyond end of file");
+            }
+            range.getRangeEnd(size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "Range not satisfiable");
+        }
+        return range;
+    }
+
+    private boolean matchesETag(List<String> ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch) {
+            String value = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if ("*".equals(value) || eTag.equals(value)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private String quoteETag(String eTag) {
+        if (eTag == null || eTag.isBlank()) {
+            return null;
+        }
+        return eTag.startsWith("\"") ? eTag : "\"" + eTag + "\"";
     }
 
     private ResponseEntity<UploadRequestDto> handleExistingRequest(UploadRequest request) {
+        uploadRecordCache.remember(request);
         return switch (request.getStatus()) {
             case COMPLETED -> buildCompletedResponse(request);
             case CANCELLED -> ResponseEntity.ok(buildCancelledResponse(request));
@@ -185,8 +734,32 @@ public class FileUploadController {
         };
     }
 
+    private Map<Integer, UploadRequestDto> describeExisting(Map<Integer, UploadRequest> requests) {
+        List<String> fileMetadataIds = requests.values().stream()
+                .filter(request -> request.getStatus() == UploadRequest.Status.COMPLETED)
+                .map(UploadRequest::getFileMetadataId)
+                .toList();
+
+        Map<String, FileMetadata> metadataById = new HashMap<>();
+        fileMetadataRepository.findStorageUrlsByIdIn(fileMetadataIds)
+                .forEach(metadata -> metadataById.put(metadata.getId(), metadata));
+
+        Map<Integer, UploadRequestDto> described = new LinkedHashMap<>();
+        requests.forEach((position, request) -> described.put(position, switch (request.getStatus()) {
+            case COMPLETED -> {
+                FileMetadata metadata = metadataById.get(request.getFileMetadataId());
+                yield UploadRequestDto.completed(request, request.getFileMetadataId(),
+                        metadata != null ? metadata.getStorageInfo().getUrl() : null);
+            }
+            case CANCELLED -> buildCancelledResponse(request);
+            case FAILED -> buildFailedResponse(request);
+            default -> buildProcessingResponse(request);
+        }));
+        return described;
+    }
+
     private ResponseEntity<UploadRequestDto> buildCompletedResponse(UploadRequest request) {
-        FileMetadata metadata = fileMetadataRepository.findById(request.getFileMetadataId())
+        FileMetadata metadata = uploadRecordCache.findMetadata(request.getFileMetadataId())
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.INTERNAL_SERVER_ERROR, "File metadata not found"));
 
@@ -0,0 +1,23 @@
+package org.example.file_uploader_servise.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.file_uploader_servise.service.MongoIndexService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "mongoindexes")
+@RequiredArgsConstructor
+public class MongoIndexEndpoint {
+
+    private final MongoIndexService mongoIndexService;
+
+    @ReadOperation
+    public Map<String, List<Map<String, Object>>> indexUsage() {
+        return mongoIndexService.indexUsage();
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.file_uploader_servise.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Dto.ResumableUploadDto;
+import org.example.file_uploader_servise.Dto.UploadRequestDto;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.exception.FileUploadException;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.example.file_uploader_servise.service.ResumableUploadService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/files/resumable")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Resumable Upload", description = "API для возобновляемой загрузки файлов по частям")
+public class ResumableUploadController {
+
+    private final ResumableUploadService resumableUploadService;
+    private final UploadRequestRepository uploadRequestRepository;
+
+
+    @PostMapping
+    @Operation(summary = "Начать возобновляемую загрузку")
+    public ResponseEntity<ResumableUploadDto> initiate(
+            @RequestParam String clientId,
+            @RequestParam String uploadId,
+            @RequestParam String filename,
+            @RequestParam long fileSize,
+            @RequestParam(required = false) String contentType
+    ) {
+
+        if (clientId.isBlank() || uploadId.isBlank()) {
+            throw new FileUploadException("ClientId and uploadId are required");
+        }
+
+        Optional<UploadRequest> existing =
+                uploadRequestRepository.findByClientIdAndUploadId(clientId, uploadId);
+
+        if (existing.isPresent()) {
+            return existingSession(existing.get());
+        }
+
+        UploadRequestRepository.Claim claim = resumableUploadService.initiate(
+                clientId,
+                uploadId,
+                filename,
+                contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                fileSize
+        );
+
+        if (!claim.created()) {
+            return existingSession(claim.request());
+        }
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(ResumableUploadDto.fromUploadRequest(claim.request()));
+    }
+
+
+    @PutMapping("/{uploadRequestId}/chunks/{chunkNumber}")
+    @Operation(summary = "Загрузить чанк", description = "Чанки можно загружать в любом порядке и параллельно")
+    public ResponseEntity<ResumableUploadDto> uploadChunk(
+            @PathVariable String uploadRequestId,
+            @PathVariable int chunkNumber,
+            @RequestParam String clientId,
+            @RequestHeader(HttpHeaders.CONTENT_LENGTH) long contentLength,
+            InputStream body
+    ) {
+
+        UploadRequest request = findOwnedRequest(uploadRequestId, clientId);
+
+        return ResponseEntity.ok(
+                resumableUploadService.uploadChunk(request, chunkNumber, body, contentLength)
+        );
+    }
+
+
+    @GetMapping("/{uploadRequestId}")
+    @Operation(summary = "Получить состояние возобновляемой загрузки")
+    public ResponseEntity<ResumableUploadDto> getSession(
+            @PathVariable String uploadRequestId,
+            @RequestParam String clientId
+    ) {
+
+        UploadRequest request = findOwnedRequest(uploadRequestId, clientId);
+
+        if (!request.isResumable() || request.isDirect()) {
+            throw new FileUploadException("Upload was not started as resumable");
+        }
+
+        return ResponseEntity.ok(ResumableUploadDto.fromUploadRequest(request));
+    }
+
+
+    @PostMapping("/{uploadRequestId}/complete")
+    @Operation(summary = "Завершить возобновляемую загрузку")
+    public ResponseEntity<UploadRequestDto> complete(
+            @PathVariable String uploadRequestId,
+            @RequestParam String clientId
+    ) {
+
+        UploadRequest request = findOwnedRequest(uploadRequestId, clientId);
+
+        return ResponseEntity.ok(resumableUploadService.complete(request));
+    }
+
+
+    private ResponseEntity<ResumableUploadDto> existingSession(UploadRequest request) {
+        if (!request.isResumable() || request.isDirect()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "UploadId is already used by a non-resumable upload");
+        }
+        return ResponseEntity.ok(ResumableUploadDto.fromUploadRequest(request));
+    }
+
+    private UploadRequest findOwnedRequest(String uploadRequestId, String clientId) {
+        UploadRequest request = uploadRequestRepository.findById(uploadRequestId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+
+        if (!request.getClientId().equals(clientId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+
+        return request;
+    }
+}
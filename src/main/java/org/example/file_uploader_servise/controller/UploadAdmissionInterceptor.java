@@ -0,0 +1,67 @@
+package org.example.file_uploader_servise.controller;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.file_uploader_servise.exception.FileUploadException;
+import org.example.file_uploader_servise.service.UploadAdmissionService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+@Component
+@RequiredArgsConstructor
+public class UploadAdmissionInterceptor implements HandlerInterceptor {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final UploadAdmissionService uploadAdmissionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST
+                || "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())) {
+            return true;
+        }
+
+        UploadAdmissionService.Permit permit =
+                uploadAdmissionService.admit(resolveClientKey(request), request.getContentLengthLong());
+        request.setAttribute(UploadAdmissionService.PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        uploadAdmissionService.takeOver(request).close();
+    }
+
+    private String resolveClientKey(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+
+        if ((clientId == null || clientId.isBlank()) && request.getQueryString() != null) {
+            String encoded = UriComponentsBuilder.newInstance()
+                    .query(request.getQueryString())
+                    .build()
+                    .getQueryParams()
+                    .getFirst("clientId");
+            clientId = encoded != null ? decode(encoded) : null;
+        }
+
+        if (clientId == null || clientId.isBlank()) {
+            throw new FileUploadException(CLIENT_ID_HEADER + " header is required");
+        }
+        return clientId;
+    }
+
+    private String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new FileUploadException("Malformed clientId query parameter");
+        }
+    }
+}
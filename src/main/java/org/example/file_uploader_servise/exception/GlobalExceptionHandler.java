@@ -2,10 +2,12 @@ package org.example.file_uploader_servise.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
 import org.example.file_uploader_servise.Dto.ErrorResponseDto;
 import org.example.file_uploader_servise.service.storage.StorageService;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -47,6 +49,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(errorResponse);
     }
 
+    @ExceptionHandler(FileUploadSizeException.class)
+    public ResponseEntity<ErrorResponseDto> handleStreamingSizeExceeded(
+            FileUploadSizeException ex, HttpServletRequest request) {
+
+        log.warn("Streaming upload size limit exceeded: {}", ex.getMessage());
+
+        ErrorResponseDto errorResponse = ErrorResponseDto.fileTooLarge(
+                "File size exceeds maximum allowed limit",
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(errorResponse);
+    }
+
+    @ExceptionHandler(UploadRejectedException.class)
+    public ResponseEntity<ErrorResponseDto> handleUploadRejected(
+            UploadRejectedException ex, HttpServletRequest request) {
+
+        ErrorResponseDto errorResponse = ex.getStatus() == HttpStatus.TOO_MANY_REQUESTS
+                ? ErrorResponseDto.tooManyRequests(ex.getMessage(), request.getRequestURI())
+                : ErrorResponseDto.serviceUnavailable(ex.getMessage(), request.getRequestURI());
+
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseDto> handleValidationException(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -0,0 +1,25 @@
+package org.example.file_uploader_servise.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class UploadRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public UploadRejectedException(String message, HttpStatus status, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public static UploadRejectedException clientLimit(String message, long retryAfterSeconds) {
+        return new UploadRejectedException(message, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds);
+    }
+
+    public static UploadRejectedException saturated(String message, long retryAfterSeconds) {
+        return new UploadRejectedException(message, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds);
+    }
+}
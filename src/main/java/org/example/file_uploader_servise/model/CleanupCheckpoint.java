@@ -0,0 +1,36 @@
+package org.example.file_uploader_servise.model;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "cleanup_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleanupCheckpoint {
+
+    @Id
+    private String job;
+
+    @Field("threshold")
+    private LocalDateTime threshold;
+
+    @Field("last_updated_at")
+    private LocalDateTime lastUpdatedAt;
+
+    @Field("last_id")
+    private String lastId;
+
+    @Field("processed")
+    private long processed;
+
+    @Field("started_at")
+    private LocalDateTime startedAt;
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+}
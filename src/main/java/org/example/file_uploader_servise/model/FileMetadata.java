@@ -1,6 +1,8 @@
 package org.example.file_uploader_servise.model;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -9,18 +11,23 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Document(collection = "file_metadata")
+@CompoundIndex(name = FileMetadata.CLIENT_CHECKSUM_INDEX, def = "{'client_id': 1, 'checksum': 1}")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class FileMetadata {
 
+    public static final String CLIENT_CHECKSUM_INDEX = "client_checksum";
+    public static final String UPLOAD_REQUEST_INDEX = "upload_request_id";
+
     @Id
     private String id;
 
     @Field("client_id")
     private String clientId;
 
+    @Indexed(name = UPLOAD_REQUEST_INDEX)
     @Field("upload_request_id")
     private String uploadRequestId;
 
@@ -0,0 +1,30 @@
+package org.example.file_uploader_servise.model;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "job_leases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLease {
+
+    @Id
+    private String job;
+
+    @Field("owner")
+    private String owner;
+
+    @Field("acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @Field("expires_at")
+    private LocalDateTime expiresAt;
+
+    @Field("renewed_at")
+    private LocalDateTime renewedAt;
+}
@@ -0,0 +1,40 @@
+package org.example.file_uploader_servise.model;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "stored_blobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredBlob {
+
+    public static final String CHECKSUM_INDEX = "checksum_unique";
+
+    @Id
+    private String id;
+
+    @Indexed(name = CHECKSUM_INDEX, unique = true)
+    @Field("checksum")
+    private String checksum;
+
+    @Field("size")
+    private Long size;
+
+    @Field("storage_info")
+    private FileMetadata.StorageInfo storageInfo;
+
+    @Field("ref_count")
+    private Long refCount;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+}
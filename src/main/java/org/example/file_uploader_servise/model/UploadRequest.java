@@ -1,18 +1,31 @@
 package org.example.file_uploader_servise.model;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Document(collection = "upload_requests")
+@CompoundIndexes({
+        @CompoundIndex(name = UploadRequest.CLIENT_UPLOAD_INDEX, def = "{'client_id': 1, 'upload_id': 1}", unique = true),
+        @CompoundIndex(name = UploadRequest.STATUS_UPDATED_INDEX, def = "{'status': 1, 'updated_at': 1}"),
+        @CompoundIndex(name = UploadRequest.CLIENT_CREATED_INDEX, def = "{'client_id': 1, 'created_at': -1}")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class UploadRequest {
 
+    public static final String CLIENT_UPLOAD_INDEX = "client_upload_unique";
+    public static final String STATUS_UPDATED_INDEX = "status_updated_at";
+    public static final String CANCELLED_TTL_INDEX = "cancelled_ttl";
+    public static final String CLIENT_CREATED_INDEX = "client_created_at";
+
     @Id
     private String id;
 
@@ -52,10 +65,62 @@ public class UploadRequest {
     @Field("completed_at")
     private LocalDateTime completedAt;
 
+    @Field("object_key")
+    private String objectKey;
+
+    @Field("storage_upload_id")
+    private String storageUploadId;
+
+    @Field("chunk_size")
+    private Long chunkSize;
+
+    @Field("total_chunks")
+    private Integer totalChunks;
+
+    @Field("chunks")
+    private Map<String, ChunkInfo> chunks;
+
+    @Field("direct_upload")
+    private Boolean directUpload;
+
     public enum Status {
         PENDING, PROCESSING, COMPLETED, FAILED, CANCELLED
     }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkInfo {
+        @Field("size")
+        private Long size;
+
+        @Field("e_tag")
+        private String eTag;
+
+        @Field("uploaded_at")
+        private LocalDateTime uploadedAt;
+    }
+
+    public boolean isResumable() {
+        return storageUploadId != null;
+    }
+
+    public boolean isDirect() {
+        return Boolean.TRUE.equals(directUpload);
+    }
+
+    public boolean isActive() {
+        return status == Status.PENDING || status == Status.PROCESSING;
+    }
+
+    public long expectedChunkSize(int chunkNumber) {
+        if (chunkNumber < totalChunks) {
+            return chunkSize;
+        }
+        return fileSize - chunkSize * (totalChunks - 1);
+    }
+
     public static UploadRequest create(
             String clientId,
             String uploadId,
@@ -0,0 +1,36 @@
+package org.example.file_uploader_servise.model;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Document(collection = "upload_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadStatsSnapshot {
+
+    public static final String CURRENT = "current";
+
+    @Id
+    private String id;
+
+    @Field("uploads")
+    private long uploads;
+
+    @Field("files")
+    private long files;
+
+    @Field("uploads_by_status")
+    private Map<String, Long> uploadsByStatus;
+
+    @Field("active_uploads_by_client")
+    private Map<String, Long> activeUploadsByClient;
+
+    @Field("refreshed_at")
+    private LocalDateTime refreshedAt;
+}
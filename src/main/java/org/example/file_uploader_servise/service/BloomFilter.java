@@ -0,0 +1,54 @@
+package org.example.file_uploader_servise.service;
+
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
+
+final class BloomFilter {
+
+    private static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long insertions = Math.max(expectedInsertions, 1);
+        long optimalBits = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+
+        this.words = new long[(int) Math.min((optimalBits + 63) >>> 6, MAX_WORDS)];
+        this.bitCount = (long) words.length << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * Math.log(2)));
+    }
+
+    void put(String value) {
+        long[] hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hash, i);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String value) {
+        long[] hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hash, i);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    private long index(long[] hash, int i) {
+        return Math.floorMod(hash[0] + i * hash[1], bitCount);
+    }
+
+    private static long[] hash(String value) {
+        return MurmurHash3.hash128x64(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.file_uploader_servise.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+public class CountingInputStream extends FilterInputStream {
+
+    private final LongConsumer listener;
+    private long count;
+
+    public CountingInputStream(InputStream in) {
+        this(in, null);
+    }
+
+    public CountingInputStream(InputStream in, LongConsumer listener) {
+        super(in);
+        this.listener = listener;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count++;
+            notifyListener();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count += n;
+            notifyListener();
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count += skipped;
+        notifyListener();
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private void notifyListener() {
+        if (listener != null) {
+            listener.accept(count);
+        }
+    }
+}
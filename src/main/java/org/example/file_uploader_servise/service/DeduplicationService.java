@@ -0,0 +1,109 @@
+package org.example.file_uploader_servise.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.example.file_uploader_servise.Repository.FileMetadataRepository;
+import org.example.file_uploader_servise.Repository.StoredBlobRepository;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.StoredBlob;
+import org.example.file_uploader_servise.service.storage.StorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeduplicationService {
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final StorageService storageService;
+
+    @Value("${app.upload.dedup.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String checksum(Path path) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            return DigestUtils.sha256Hex(inputStream);
+        }
+    }
+
+    public Optional<FileMetadata.StorageInfo> reuse(String checksum, long size) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Optional<FileMetadata.StorageInfo> existing = storedBlobRepository.acquire(checksum, size)
+                .map(StoredBlob::getStorageInfo);
+
+        existing.ifPresent(info -> log.info("Deduplicated upload: checksum={}, key={}", checksum, info.getKey()));
+        return existing;
+    }
+
+    public Optional<FileMetadata.StorageInfo> reuseForClient(String clientId, String checksum, long size) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        boolean knownToClient = fileMetadataRepository
+                .findFirstByClientIdAndChecksumAndSizeAndStatus(clientId, checksum, size, FileMetadata.Status.COMPLETED)
+                .isPresent();
+
+        return knownToClient ? reuse(checksum, size) : Optional.empty();
+    }
+
+    public FileMetadata.StorageInfo register(String checksum, long size, FileMetadata.StorageInfo uploaded) {
+        if (!enabled) {
+            return uploaded;
+        }
+
+        StoredBlob blob = storedBlobRepository.register(checksum, size, uploaded);
+        FileMetadata.StorageInfo canonical = blob.getStorageInfo();
+
+        if (!Objects.equals(canonical.getKey(), uploaded.getKey())) {
+            log.info("Identical content already stored, dropping duplicate object: checksum={}, key={}",
+                    checksum, uploaded.getKey());
+            deleteQuietly(uploaded);
+        }
+
+        return canonical;
+    }
+
+    public void release(FileMetadata fileMetadata) {
+        FileMetadata.StorageInfo storageInfo = fileMetadata.getStorageInfo();
+        if (storageInfo == null) {
+            return;
+        }
+
+        if (fileMetadata.getChecksum() != null) {
+            Optional<StoredBlob> blob = storedBlobRepository.findByChecksum(fileMetadata.getChecksum());
+            if (blob.isPresent() && Objects.equals(blob.get().getStorageInfo().getKey(), storageInfo.getKey())) {
+                storedBlobRepository.release(fileMetadata.getChecksum())
+                        .ifPresent(unreferenced -> deleteQuietly(unreferenced.getStorageInfo()));
+                return;
+            }
+        }
+
+        deleteQuietly(storageInfo);
+    }
+
+    private void deleteQuietly(FileMetadata.StorageInfo storageInfo) {
+        try {
+            storageService.deleteFile(storageInfo.getBucket(), storageInfo.getKey());
+        } catch (StorageService.StorageException e) {
+            log.warn("Failed to delete object {}: {}", storageInfo.getKey(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package org.example.file_uploader_servise.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Dto.DirectUploadDto;
+import org.example.file_uploader_servise.Dto.PresignedUrlDto;
+import org.example.file_uploader_servise.Dto.UploadRequestDto;
+import org.example.file_uploader_servise.Repository.FileMetadataRepository;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.exception.FileUploadException;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.example.file_uploader_servise.service.storage.S3MultipartUploader;
+import org.example.file_uploader_servise.service.storage.StorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnExpression("${app.upload.direct.enabled:false} and '${storage.type:s3}'.startsWith('s3')")
+public class DirectUploadService {
+
+    private static final int MAX_PARTS = 10_000;
+    private static final String RECONCILE_JOB = "direct-upload-reconcile";
+
+    private final StorageService storageService;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final UploadRequestRepository uploadRequestRepository;
+    private final ObjectKeyGenerator objectKeyGenerator;
+    private final UploadEventService uploadEventService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${storage.s3.bucket:uploads}")
+    private String bucket;
+
+    @Value("${app.upload.direct.url-ttl-seconds:900}")
+    private long urlTtlSeconds;
+
+    @Value("${app.upload.direct.multipart-threshold-bytes:104857600}")
+    private long multipartThreshold;
+
+    @Value("${app.upload.direct.part-size-bytes:16777216}")
+    private long partSize;
+
+    @Value("${app.upload.direct.max-file-size-bytes:5368709120}")
+    private long maxFileSize;
+
+    @Value("${app.upload.direct.abandon-after-seconds:21600}")
+    private long abandonAfterSeconds;
+
+    @Value("${app.upload.direct.reconcile-interval-millis:60000}")
+    private long reconcileIntervalMillis;
+
+    public UploadRequestRepository.Claim initiate(
+            String clientId,
+            String uploadId,
+            String originalFilename,
+            String contentType,
+            long fileSize
+    ) {
+        if (fileSize <= 0) {
+            throw new FileUploadException("File size must be positive");
+        }
+        if (fileSize > maxFileSize) {
+            throw new FileUploadException("File size exceeds " + maxFileSize + " bytes");
+        }
+
+        String objectKey = objectKeyGenerator.generate(clientId, uploadId, originalFilename);
+
+        UploadRequest request = UploadRequest.builder()
+                .id(UUID.randomUUID().toString())
+                .clientId(clientId)
+                .uploadId(uploadId)
+                .originalFilename(originalFilename)
+                .contentType(contentType)
+                .fileSize(fileSize)
+                .status(UploadRequest.Status.PENDING)
+                .attemptCount(1)
+                .objectKey(objectKey)
+                .directUpload(true)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        if (fileSize >= multipartThreshold) {
+            long effectivePartSize = Math.max(partSize, S3MultipartUploader.MIN_PART_SIZE);
+            long totalParts = (fileSize + effectivePartSize - 1) / effectivePartSize;
+            if (totalParts > MAX_PARTS) {
+                throw new FileUploadException("File requires more than " + MAX_PARTS + " parts");
+            }
+
+            request.setStorageUploadId(
+                    storageService.initiateMultipartUpload(bucket, objectKey, contentType, new HashMap<>()));
+            request.setChunkSize(effectivePartSize);
+            request.setTotalChunks((int) totalParts);
+        }
+
+        UploadRequestRepository.Claim claim = uploadRequestRepository.claim(request);
+
+        if (!claim.created()) {
+            abort(request);
+            return claim;
+        }
+
+        log.info("Direct upload initiated: requestId={}, clientId={}, multipart={}",
+                request.getId(), clientId, request.isResumable());
+
+        return claim;
+    }
+
+    public DirectUploadDto describe(UploadRequest request) {
+        DirectUploadDto.DirectUploadDtoBuilder dto = DirectUploadDto.builder()
+                .uploadRequestId(request.getId())
+                .clientId(request.getClientId())
+                .uploadId(request.getUploadId())
+                .status(request.getStatus())
+                .fileSize(request.getFileSize())
+                .createdAt(request.getCreatedAt());
+
+        if (!request.isActive()) {
+            return dto.build();
+        }
+
+        Duration ttl = Duration.ofSeconds(urlTtlSeconds);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        uploadRequestRepository.touch(request.getId());
+
+        if (!request.isResumable()) {
+            return dto.upload(PresignedUrlDto.builder()
+                    .method("PUT")
+                    .url(storageService.presignUpload(
+                            bucket,
+                            request.getObjectKey(),
+                            request.getContentType(),
+                            request.getFileSize(),
+                            ttl
+                    ).toString())
+                    .size(request.getFileSize())
+                    .headers(Map.of(HttpHeaders.CONTENT_TYPE, request.getContentType()))
+                    .expiresAt(expiresAt)
+                    .build()).build();
+        }
+
+        List<PresignedUrlDto> parts = IntStream.rangeClosed(1, request.getTotalChunks())
+                .mapToObj(partNumber -> PresignedUrlDto.builder()
+                        .method("PUT")
+                        .partNumber(partNumber)
+                        .url(storageService.presignUploadPart(
+                                bucket,
+                                request.getObjectKey(),
+                                request.getStorageUploadId(),
+                                partNumber,
+                                request.expectedChunkSize(partNumber),
+                                ttl
+                        ).toString())
+                        .size(request.expectedChunkSize(partNumber))
+                        .expiresAt(expiresAt)
+                        .build())
+                .toList();
+
+        return dto.parts(parts).build();
+    }
+
+    public UploadRequestDto complete(UploadRequest request) {
+        if (!request.isDirect()) {
+            throw new FileUploadException("Upload was not started as direct upload");
+        }
+        if (!request.isActive()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is no longer active");
+        }
+
+        if (request.isResumable()) {
+            SortedMap<Integer, String> parts = storageService.listUploadedParts(
+                    bucket, request.getObjectKey(), request.getStorageUploadId());
+
+            if (parts.size() != request.getTotalChunks()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Uploaded " + parts.size() + " of " + request.getTotalChunks() + " parts");
+            }
+
+            storageService.completeMultipartUpload(bucket, request.getObjectKey(), request.getStorageUploadId(), parts);
+        }
+
+        StorageService.ObjectStat stat = storageService.statObject(bucket, request.getObjectKey())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Object has not been uploaded"));
+
+        return finish(request, stat);
+    }
+
+    public PresignedUrlDto presignDownload(FileMetadata fileMetadata) {
+        Duration ttl = Duration.ofSeconds(urlTtlSeconds);
+
+        return PresignedUrlDto.builder()
+                .method("GET")
+                .url(storageService.presignDownload(
+                        fileMetadata.getStorageInfo().getBucket(),
+                        fileMetadata.getStorageInfo().getKey(),
+                        fileMetadata.getOriginalFilename(),
+                        ttl
+                ).toString())
+                .size(fileMetadata.getSize())
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build();
+    }
+
+    public void abort(UploadRequest request) {
+        if (!request.isResumable()) {
+            return;
+        }
+        try {
+            storageService.abortMultipartUpload(bucket, request.getObjectKey(), request.getStorageUploadId());
+        } catch (StorageService.StorageException e) {
+            log.warn("Failed to abort multipart upload for request {}: {}", request.getId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.direct.reconcile-interval-millis:60000}")
+    public void reconcileExpiredUploads() {
+        jobLeaseService.runExclusively(RECONCILE_JOB, Duration.ofMillis(reconcileIntervalMillis),
+                lease -> reconcile());
+    }
+
+    private void reconcile() {
+        LocalDateTime threshold = LocalDateTime.now().minusSeconds(urlTtlSeconds);
+        LocalDateTime abandonThreshold = LocalDateTime.now().minusSeconds(abandonAfterSeconds);
+
+        List<UploadRequest> expired = uploadRequestRepository
+                .findByStatusAndDirectUploadAndUpdatedAtBefore(UploadRequest.Status.PENDING, true, threshold);
+
+        for (UploadRequest request : expired) {
+            try {
+                if (!request.isResumable()) {
+                    Optional<StorageService.ObjectStat> stat = storageService.statObject(bucket, request.getObjectKey());
+                    if (stat.isPresent()) {
+                        log.info("Completing direct upload the client did not confirm: requestId={}",
+                                request.getId());
+                        finish(request, stat.get());
+                        continue;
+                    }
+                }
+                if (request.getUpdatedAt().isBefore(abandonThreshold)) {
+                    expire(request);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to reconcile direct upload {}: {}", request.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void expire(UploadRequest request) {
+        String error = "Direct upload abandoned - no activity for " + abandonAfterSeconds + " seconds";
+        if (!uploadRequestRepository.markFailed(request.getId(), error)) {
+            return;
+        }
+        abort(request);
+        request.markFailed(error);
+        uploadEventService.publishStatus(request);
+
+        log.info("Direct upload abandoned: requestId={}", request.getId());
+    }
+
+    private UploadRequestDto finish(UploadRequest request, StorageService.ObjectStat stat) {
+        if (stat.size() != request.getFileSize()) {
+            String error = "Uploaded size " + stat.size() + " does not match declared size " + request.getFileSize();
+            storageService.deleteFile(bucket, request.getObjectKey());
+            if (uploadRequestRepository.markFailed(request.getId(), error)) {
+                request.markFailed(error);
+                uploadEventService.publishStatus(request);
+            }
+            throw new FileUploadException(error);
+        }
+
+        FileMetadata fileMetadata = FileMetadata.builder()
+                .id(UUID.randomUUID().toString())
+                .clientId(request.getClientId())
+                .uploadRequestId(request.getId())
+                .uploadId(request.getUploadId())
+                .originalFilename(request.getOriginalFilename())
+                .contentType(request.getContentType())
+                .size(stat.size())
+                .storageInfo(stat.storageInfo())
+                .status(FileMetadata.Status.COMPLETED)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        fileMetadataRepository.insert(fileMetadata);
+
+        if (!uploadRequestRepository.markCompleted(request.getId(), fileMetadata.getId(), null, null)) {
+            fileMetadataRepository.deleteById(fileMetadata.getId());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is no longer active");
+        }
+        request.markCompleted(fileMetadata.getId());
+        uploadEventService.publishStatus(request);
+
+        log.info("Direct upload completed: requestId={}, bytes={}", request.getId(), stat.size());
+
+        return UploadRequestDto.completed(request, fileMetadata.getId(), stat.storageInfo().getUrl());
+    }
+}
@@ -2,6 +2,9 @@ package org.example.file_uploader_servise.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.example.file_uploader_servise.Dto.HashPrecheckRequestDto;
 import org.example.file_uploader_servise.Dto.UploadRequestDto;
 import org.example.file_uploader_servise.Repository.FileMetadataRepository;
 import org.example.file_uploader_servise.Repository.UploadRequestRepository;
@@ -9,16 +12,27 @@ import org.example.file_uploader_servise.exception.FileUploadException;
 import org.example.file_uploader_servise.model.FileMetadata;
 import org.example.file_uploader_servise.model.UploadRequest;
 import org.example.file_uploader_servise.service.storage.StorageService;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
@@ -28,84 +42,148 @@ public class FileUploadService {
     private final StorageService storageService;
     private final FileMetadataRepository fileMetadataRepository;
     private final UploadRequestRepository uploadRequestRepository;
+    private final ObjectKeyGenerator objectKeyGenerator;
+    private final UploadStagingService uploadStagingService;
+    private final DeduplicationService deduplicationService;
+    private final UploadStatusWriteBehind uploadStatusWriteBehind;
+    private final UploadEventService uploadEventService;
+
+    @Qualifier("uploadExecutor")
+    private final Executor uploadExecutor;
 
     @Value("${storage.s3.bucket:uploads}")
     private String bucket;
 
-    @Transactional
-    public UploadRequestDto upload(
-            String clientId,
-            String uploadId,
-            MultipartFile file,
-            Map<String, String> metadata,
-            String uploadRequestId
-    ) {
-
-        log.info(" Start upload: clientId={}, uploadId={}", clientId, uploadId);
+    @Value("${app.upload.batch.parallelism:8}")
+    private int batchParallelism;
 
-        UploadRequest uploadRequest = uploadRequestRepository.findById(uploadRequestId)
-                .orElseThrow(() -> new FileUploadException("UploadRequest not found: " + uploadRequestId));
+    public UploadRequestDto uploadStream(
+            UploadRequest uploadRequest,
+            String originalFilename,
+            String contentType,
+            InputStream inputStream,
+            Map<String, String> metadata
+    ) {
 
-        uploadRequest.setStatus(UploadRequest.Status.PROCESSING);
-        uploadRequest.setUpdatedAt(LocalDateTime.now());
-        uploadRequestRepository.save(uploadRequest);
+        String uploadRequestId = uploadRequest.getId();
+        log.info("Start streaming upload: clientId={}, uploadId={}",
+                uploadRequest.getClientId(), uploadRequest.getUploadId());
 
+        markProcessing(uploadRequest);
 
+        FileMetadata fileMetadata;
         try {
-            validateFile(file);
-
-            FileMetadata fileMetadata = createProcessingMetadata(uploadRequest, file, metadata);
-            fileMetadataRepository.save(fileMetadata);
-
-            String objectKey = generateObjectKey(
-                    clientId,
-                    uploadId,
-                    file.getOriginalFilename()
+            String objectKey = objectKeyGenerator.generate(
+                    uploadRequest.getClientId(),
+                    uploadRequest.getUploadId(),
+                    originalFilename
             );
 
-            FileMetadata.StorageInfo storageInfo = storageService.uploadFile(
+            CountingInputStream countingStream = new CountingInputStream(inputStream,
+                    bytes -> uploadEventService.publishProgress(uploadRequest, bytes));
+            DigestInputStream digestStream = new DigestInputStream(countingStream, DigestUtils.getSha256Digest());
+            FileMetadata.StorageInfo uploaded = storageService.uploadStream(
                     bucket,
                     objectKey,
-                    file,
+                    digestStream,
+                    -1,
+                    contentType,
                     metadata != null ? metadata : new HashMap<>()
             );
 
-            fileMetadata.setStatus(FileMetadata.Status.COMPLETED);
-            fileMetadata.setStorageInfo(storageInfo);
-            fileMetadata.setUpdatedAt(LocalDateTime.now());
-            fileMetadataRepository.save(fileMetadata);
-
-            uploadRequest.setStatus(UploadRequest.Status.COMPLETED);
-            uploadRequest.setFileMetadataId(fileMetadata.getId());
-            uploadRequest.setUpdatedAt(LocalDateTime.now());
-            uploadRequestRepository.save(uploadRequest);
-
-            log.info("Upload completed: requestId={}", uploadRequestId);
-
-            return buildSuccessResponse(uploadRequest, fileMetadata);
+            String checksum = Hex.encodeHexString(digestStream.getMessageDigest().digest());
+            FileMetadata.StorageInfo storageInfo =
+                    deduplicationService.register(checksum, countingStream.getCount(), uploaded);
+
+            fileMetadata = createCompletedMetadata(
+                    uploadRequest,
+                    originalFilename,
+                    contentType,
+                    countingStream.getCount(),
+                    checksum,
+                    storageInfo,
+                    metadata
+            );
 
         } catch (Exception e) {
-            log.error(" Upload failed: requestId={}, error={}", uploadRequestId, e.getMessage(), e);
+            log.error("Streaming upload failed: requestId={}, error={}", uploadRequestId, e.getMessage(), e);
             markFailed(uploadRequest, e.getMessage());
             throw new FileUploadException("Upload failed: " + e.getMessage(), e);
         }
+
+        if (!complete(uploadRequest, fileMetadata)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is no longer active");
+        }
+
+        log.info("Streaming upload completed: requestId={}, bytes={}", uploadRequestId, fileMetadata.getSize());
+
+        return buildSuccessResponse(uploadRequest, fileMetadata);
     }
 
+    public Optional<UploadRequestDto> completeFromKnownContent(HashPrecheckRequestDto precheck) {
+        String checksum = precheck.getSha256().toLowerCase(Locale.ROOT);
+
+        Optional<FileMetadata.StorageInfo> storageInfo =
+                deduplicationService.reuseForClient(precheck.getClientId(), checksum, precheck.getSize());
 
-    private void validateFile(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new FileUploadException("File is required");
+        if (storageInfo.isEmpty()) {
+            return Optional.empty();
         }
 
-        long maxSize = 100L * 1024 * 1024;
-        if (file.getSize() > maxSize) {
-            throw new FileUploadException("File size exceeds 100MB");
+        String contentType = precheck.getContentType() != null
+                ? precheck.getContentType()
+                : "application/octet-stream";
+
+        UploadRequest uploadRequest = UploadRequest.builder()
+                .id(UUID.randomUUID().toString())
+                .clientId(precheck.getClientId())
+                .uploadId(precheck.getUploadId())
+                .originalFilename(precheck.getFilename())
+                .contentType(contentType)
+                .fileSize(precheck.getSize())
+                .checksum(checksum)
+                .attemptCount(1)
+                .build();
+        uploadRequest.initialize();
+
+        FileMetadata fileMetadata = createCompletedMetadata(
+                uploadRequest,
+                precheck.getFilename(),
+                contentType,
+                precheck.getSize(),
+                checksum,
+                storageInfo.get(),
+                null
+        );
+
+        try {
+            fileMetadataRepository.insert(fileMetadata);
+        } catch (RuntimeException e) {
+            deduplicationService.release(fileMetadata);
+            throw e;
         }
+
+        uploadRequest.markCompleted(fileMetadata.getId());
+        try {
+            uploadRequestRepository.insert(uploadRequest);
+        } catch (RuntimeException e) {
+            fileMetadataRepository.deleteById(fileMetadata.getId());
+            deduplicationService.release(fileMetadata);
+            throw e;
+        }
+
+        log.info("Upload completed from known content: requestId={}, checksum={}", uploadRequest.getId(), checksum);
+
+        return Optional.of(buildSuccessResponse(uploadRequest, fileMetadata));
     }
 
-    private FileMetadata createProcessingMetadata(
+    private FileMetadata createCompletedMetadata(
             UploadRequest uploadRequest,
-            MultipartFile file,
+            String originalFilename,
+            String contentType,
+            long size,
+            String checksum,
+            FileMetadata.StorageInfo storageInfo,
             Map<String, String> metadata
     ) {
 
@@ -114,10 +192,12 @@ public class FileUploadService {
                 .clientId(uploadRequest.getClientId())
                 .uploadRequestId(uploadRequest.getId())
                 .uploadId(uploadRequest.getUploadId())
-                .originalFilename(file.getOriginalFilename())
-                .contentType(file.getContentType())
-                .size(file.getSize())
-                .status(FileMetadata.Status.PROCESSING)
+                .originalFilename(originalFilename)
+                .contentType(contentType)
+                .size(size)
+                .checksum(checksum)
+                .storageInfo(storageInfo)
+                .status(FileMetadata.Status.COMPLETED)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
@@ -129,12 +209,64 @@ public class FileUploadService {
         return fileMetadata;
     }
 
+    private boolean complete(UploadRequest uploadRequest, FileMetadata fileMetadata) {
+        uploadStatusWriteBehind.discard(uploadRequest.getId());
+
+        boolean completed;
+        try {
+            fileMetadataRepository.insert(fileMetadata);
+            completed = uploadRequestRepository.markCompleted(
+                    uploadRequest.getId(),
+                    fileMetadata.getId(),
+                    fileMetadata.getChecksum(),
+                    fileMetadata.getSize()
+            );
+        } catch (RuntimeException e) {
+            releaseUnlessCompleted(uploadRequest, fileMetadata);
+            throw e;
+        }
+
+        if (!completed) {
+            log.info("Upload finished after request left active state, discarding: requestId={}",
+                    uploadRequest.getId());
+            fileMetadataRepository.deleteById(fileMetadata.getId());
+            deduplicationService.release(fileMetadata);
+            return false;
+        }
+
+        uploadRequest.setChecksum(fileMetadata.getChecksum());
+        uploadRequest.setFileSize(fileMetadata.getSize());
+        uploadRequest.markCompleted(fileMetadata.getId());
+        uploadEventService.publishStatus(uploadRequest);
+        return true;
+    }
+
+    private void releaseUnlessCompleted(UploadRequest uploadRequest, FileMetadata fileMetadata) {
+        try {
+            boolean completed = uploadRequestRepository.findById(uploadRequest.getId())
+                    .map(stored -> fileMetadata.getId().equals(stored.getFileMetadataId()))
+                    .orElse(false);
+            if (!completed) {
+                fileMetadataRepository.deleteById(fileMetadata.getId());
+                deduplicationService.release(fileMetadata);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to release storage of unfinished upload {}: {}", uploadRequest.getId(), e.getMessage());
+        }
+    }
+
+    private void markProcessing(UploadRequest uploadRequest) {
+        uploadStatusWriteBehind.markProcessing(uploadRequest.getId());
+        uploadRequest.markProcessing();
+        uploadEventService.publishStatus(uploadRequest);
+    }
+
     private void markFailed(UploadRequest uploadRequest, String error) {
-        uploadRequest.setStatus(UploadRequest.Status.FAILED);
-        uploadRequest.setError(error);
-        uploadRequest.setAttemptCount(uploadRequest.getAttemptCount() + 1);
-        uploadRequest.setUpdatedAt(LocalDateTime.now());
-        uploadRequestRepository.save(uploadRequest);
+        uploadStatusWriteBehind.discard(uploadRequest.getId());
+        if (uploadRequestRepository.markFailed(uploadRequest.getId(), error)) {
+            uploadRequest.markFailed(error);
+            uploadEventService.publishStatus(uploadRequest);
+        }
     }
 
     private UploadRequestDto buildSuccessResponse(
@@ -157,34 +289,178 @@ public class FileUploadService {
                 .build();
     }
 
-    private String generateObjectKey(String clientId, String uploadId, String filename) {
-        String safeFilename = filename != null
-                ? filename.replaceAll("[^a-zA-Z0-9._-]", "_")
-                : "file";
+    public CompletableFuture<UploadRequestDto> processUploadAsync(
+            UploadRequest uploadRequest,
+            StagedFile stagedFile,
+            Map<String, String> metadata
+    ) {
+        String uploadRequestId = uploadRequest.getId();
+
+        return CompletableFuture
+                .supplyAsync(() -> startUpload(uploadRequest, stagedFile), uploadExecutor)
+                .thenCompose(checksum -> checksum
+                        .map(value -> storeOrReuse(uploadRequest, stagedFile, value, metadata)
+                                .thenApply(storageInfo ->
+                                        finishUpload(uploadRequest, stagedFile, value, storageInfo, metadata)))
+                        .orElseGet(() -> CompletableFuture.completedFuture(inactiveResult(uploadRequest))))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        Throwable cause = unwrap(ex);
+                        log.error(" Upload failed: requestId={}, error={}", uploadRequestId, cause.getMessage(), cause);
+                        markFailed(uploadRequest, cause.getMessage());
+                    }
+                    uploadStagingService.discard(stagedFile);
+                });
+    }
+
+    public CompletableFuture<List<UploadRequestDto>> processBatchAsync(List<BatchItem> items) {
+        List<CompletableFuture<UploadRequestDto>> results = items.stream()
+                .map(item -> new CompletableFuture<UploadRequestDto>())
+                .toList();
+
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.min(Math.max(batchParallelism, 1), items.size());
+        for (int i = 0; i < workers; i++) {
+            processNext(items, results, next);
+        }
+
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    private void processNext(
+            List<BatchItem> items,
+            List<CompletableFuture<UploadRequestDto>> results,
+            AtomicInteger next
+    ) {
+        int index = next.getAndIncrement();
+        if (index >= items.size()) {
+            return;
+        }
 
-        return String.format(
-                "%s/%s/%d-%s",
-                clientId,
-                uploadId,
-                System.currentTimeMillis(),
-                safeFilename
+        BatchItem item = items.get(index);
+        CompletableFuture<UploadRequestDto> upload;
+        try {
+            upload = processUploadAsync(item.request(), item.stagedFile(), null);
+        } catch (RejectedExecutionException e) {
+            log.warn("Upload executor saturated, failing batch item: requestId={}", item.request().getId());
+            markFailed(item.request(), "Upload queue is full");
+            uploadStagingService.discard(item.stagedFile());
+            upload = CompletableFuture.failedFuture(e);
+        }
+
+        upload.whenComplete((result, ex) -> {
+            if (ex != null) {
+                item.request().setError(unwrap(ex).getMessage());
+                results.get(index).complete(UploadRequestDto.failed(item.request()));
+            } else {
+                results.get(index).complete(result);
+            }
+            processNext(items, results, next);
+        });
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private Optional<String> startUpload(UploadRequest uploadRequest, StagedFile stagedFile) {
+        log.info(" Start upload: clientId={}, uploadId={}", uploadRequest.getClientId(), uploadRequest.getUploadId());
+
+        UploadRequest.Status status = refreshStatus(uploadRequest);
+        if (status != UploadRequest.Status.PENDING) {
+            log.info("Upload skipped, request is {}: requestId={}", status, uploadRequest.getId());
+            return Optional.empty();
+        }
+
+        markProcessing(uploadRequest);
+
+        try {
+            return Optional.of(deduplicationService.checksum(stagedFile.path()));
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to read staged file", e);
+        }
+    }
+
+    private UploadRequest.Status refreshStatus(UploadRequest uploadRequest) {
+        uploadRequestRepository.findStatusById(uploadRequest.getId()).ifPresentOrElse(
+                current -> {
+                    uploadRequest.setStatus(current.getStatus());
+                    uploadRequest.setError(current.getError());
+                },
+                () -> uploadRequest.setStatus(UploadRequest.Status.CANCELLED)
+        );
+        return uploadRequest.getStatus();
+    }
+
+    private UploadRequestDto inactiveResult(UploadRequest uploadRequest) {
+        return uploadRequest.getStatus() == UploadRequest.Status.CANCELLED
+                ? UploadRequestDto.cancelled(uploadRequest)
+                : UploadRequestDto.failed(uploadRequest);
+    }
+
+    private CompletableFuture<FileMetadata.StorageInfo> storeOrReuse(
+            UploadRequest uploadRequest,
+            StagedFile stagedFile,
+            String checksum,
+            Map<String, String> metadata
+    ) {
+        Optional<FileMetadata.StorageInfo> reused = deduplicationService.reuse(checksum, stagedFile.size());
+        if (reused.isPresent()) {
+            return CompletableFuture.completedFuture(reused.get());
+        }
+
+        String objectKey = objectKeyGenerator.generate(
+                uploadRequest.getClientId(),
+                uploadRequest.getUploadId(),
+                stagedFile.originalFilename()
         );
+
+        return storageService.uploadFileAsync(
+                        bucket,
+                        objectKey,
+                        stagedFile.path(),
+                        stagedFile.contentType(),
+                        metadata != null ? metadata : new HashMap<>()
+                )
+                .thenCompose(uploaded -> {
+                    try {
+                        return CompletableFuture.supplyAsync(
+                                () -> deduplicationService.register(checksum, stagedFile.size(), uploaded),
+                                uploadExecutor);
+                    } catch (RejectedExecutionException e) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                });
     }
 
-    @Async("uploadExecutor")
-    public UploadRequestDto processUploadSync(
-            String clientId,
-            String uploadId,
-            MultipartFile file,
-            Map<String, String> metadata,
-            String uploadRequestId
+    private UploadRequestDto finishUpload(
+            UploadRequest uploadRequest,
+            StagedFile stagedFile,
+            String checksum,
+            FileMetadata.StorageInfo storageInfo,
+            Map<String, String> metadata
     ) {
-        return upload(
-                clientId,
-                uploadId,
-                file,
-                metadata,
-                uploadRequestId
+        FileMetadata fileMetadata = createCompletedMetadata(
+                uploadRequest,
+                stagedFile.originalFilename(),
+                stagedFile.contentType(),
+                stagedFile.size(),
+                checksum,
+                storageInfo,
+                metadata
         );
+
+        if (!complete(uploadRequest, fileMetadata)) {
+            refreshStatus(uploadRequest);
+            return inactiveResult(uploadRequest);
+        }
+
+        log.info("Upload completed: requestId={}", uploadRequest.getId());
+
+        return buildSuccessResponse(uploadRequest, fileMetadata);
+    }
+
+    public record BatchItem(UploadRequest request, StagedFile stagedFile) {
     }
 }
@@ -0,0 +1,156 @@
+package org.example.file_uploader_servise.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Repository.JobLeaseRepository;
+import org.example.file_uploader_servise.model.JobLease;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+public class JobLeaseService {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final MeterRegistry meterRegistry;
+    private final String owner;
+    private final boolean enabled;
+    private final Duration leaseTtl;
+
+    private final Map<String, AtomicInteger> held = new ConcurrentHashMap<>();
+
+    public JobLeaseService(
+            JobLeaseRepository jobLeaseRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.scheduling.lease.enabled:true}") boolean enabled,
+            @Value("${app.scheduling.lease.ttl-millis:120000}") long leaseTtlMillis
+    ) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.leaseTtl = Duration.ofMillis(leaseTtlMillis);
+        this.owner = hostname() + ":" + UUID.randomUUID();
+    }
+
+    public boolean runExclusively(String job, Duration window, Consumer<Lease> task) {
+        Optional<Lease> acquired = tryAcquire(job);
+        if (acquired.isEmpty()) {
+            return false;
+        }
+
+        Lease lease = acquired.get();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            task.accept(lease);
+            return true;
+        } finally {
+            sample.stop(meterRegistry.timer("scheduler.lease.task.duration", "job", job));
+            lease.release(window);
+        }
+    }
+
+    private Optional<Lease> tryAcquire(String job) {
+        if (!enabled) {
+            return Optional.of(new Lease(job, LocalDateTime.now()));
+        }
+
+        Optional<JobLease> lease;
+        try {
+            lease = jobLeaseRepository.tryAcquire(job, owner, LocalDateTime.now().plus(leaseTtl));
+        } catch (RuntimeException e) {
+            log.warn("Failed to acquire lease for job {}: {}", job, e.getMessage());
+            count(job, "error");
+            return Optional.empty();
+        }
+
+        if (lease.isEmpty()) {
+            log.debug("Job {} is owned by another instance, skipping", job);
+            count(job, "skipped");
+            return Optional.empty();
+        }
+
+        count(job, "acquired");
+        heldGauge(job).set(1);
+        return Optional.of(new Lease(job, lease.get().getAcquiredAt()));
+    }
+
+    private void count(String job, String result) {
+        meterRegistry.counter("scheduler.lease.acquisitions", Tags.of("job", job, "result", result)).increment();
+    }
+
+    private AtomicInteger heldGauge(String job) {
+        return held.computeIfAbsent(job, key ->
+                meterRegistry.gauge("scheduler.lease.held", Tags.of("job", key), new AtomicInteger()));
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    public final class Lease {
+
+        private final String job;
+        private final LocalDateTime acquiredAt;
+        private volatile boolean lost;
+
+        private Lease(String job, LocalDateTime acquiredAt) {
+            this.job = job;
+            this.acquiredAt = acquiredAt;
+        }
+
+        public boolean renew() {
+            if (!enabled || lost) {
+                return !lost;
+            }
+
+            try {
+                if (jobLeaseRepository.renew(job, owner, LocalDateTime.now().plus(leaseTtl))) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to renew lease for job {}: {}", job, e.getMessage());
+                return true;
+            }
+
+            log.warn("Lease for job {} was taken over by another instance, stopping", job);
+            meterRegistry.counter("scheduler.lease.lost", "job", job).increment();
+            heldGauge(job).set(0);
+            lost = true;
+            return false;
+        }
+
+        private void release(Duration window) {
+            if (!enabled || lost) {
+                return;
+            }
+
+            LocalDateTime windowEnd = acquiredAt.plus(window);
+            LocalDateTime now = LocalDateTime.now();
+
+            try {
+                jobLeaseRepository.release(job, owner, windowEnd.isAfter(now) ? windowEnd : now);
+            } catch (RuntimeException e) {
+                log.warn("Failed to release lease for job {}: {}", job, e.getMessage());
+            } finally {
+                heldGauge(job).set(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.file_uploader_servise.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.StoredBlob;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MongoIndexService {
+
+    private static final Map<Class<?>, Set<String>> EXPECTED_INDEXES = Map.of(
+            UploadRequest.class, Set.of(
+                    UploadRequest.CLIENT_UPLOAD_INDEX,
+                    UploadRequest.STATUS_UPDATED_INDEX,
+                    UploadRequest.CANCELLED_TTL_INDEX,
+                    UploadRequest.CLIENT_CREATED_INDEX),
+            FileMetadata.class, Set.of(
+                    FileMetadata.CLIENT_CHECKSUM_INDEX,
+                    FileMetadata.UPLOAD_REQUEST_INDEX),
+            StoredBlob.class, Set.of(
+                    StoredBlob.CHECKSUM_INDEX)
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.mongo.indexes.cancelled-retention-days:7}")
+    private long cancelledRetentionDays;
+
+    @Value("${app.mongo.indexes.fail-on-missing:false}")
+    private boolean failOnMissing;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        ensureTtlIndexes();
+        verifyIndexes();
+    }
+
+    public Map<String, List<Map<String, Object>>> indexUsage() {
+        Map<String, List<Map<String, Object>>> report = new LinkedHashMap<>();
+
+        for (Class<?> entity : EXPECTED_INDEXES.keySet()) {
+            String collection = mongoTemplate.getCollectionName(entity);
+            List<Map<String, Object>> stats = new ArrayList<>();
+
+            for (Document indexStats : mongoTemplate.getCollection(collection)
+                    .aggregate(List.of(new Document("$indexStats", new Document())))) {
+                Document accesses = indexStats.get("accesses", Document.class);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("name", indexStats.getString("name"));
+                entry.put("key", indexStats.get("key"));
+                entry.put("ops", accesses != null ? accesses.get("ops") : null);
+                entry.put("since", accesses != null ? accesses.get("since") : null);
+                stats.add(entry);
+            }
+
+            report.put(collection, stats);
+        }
+
+        return report;
+    }
+
+    private void ensureTtlIndexes() {
+        try {
+            mongoTemplate.indexOps(UploadRequest.class).ensureIndex(
+                    new Index()
+                            .on("updated_at", Sort.Direction.ASC)
+                            .named(UploadRequest.CANCELLED_TTL_INDEX)
+                            .expire(Duration.ofDays(cancelledRetentionDays))
+                            .partial(PartialIndexFilter.of(
+                                    Criteria.where("status").is(UploadRequest.Status.CANCELLED.name())))
+            );
+        } catch (DataAccessException e) {
+            log.error("Failed to create TTL index {}: {}", UploadRequest.CANCELLED_TTL_INDEX, e.getMessage());
+        }
+    }
+
+    private void verifyIndexes() {
+        List<String> missing = new ArrayList<>();
+
+        EXPECTED_INDEXES.forEach((entity, expected) -> {
+            Set<String> present = mongoTemplate.indexOps(entity).getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+
+            expected.stream()
+                    .filter(name -> !present.contains(name))
+                    .map(name -> mongoTemplate.getCollectionName(entity) + "." + name)
+                    .forEach(missing::add);
+        });
+
+        if (missing.isEmpty()) {
+            log.info("Mongo index set verified");
+            return;
+        }
+
+        log.error("Missing Mongo indexes: {}", missing);
+        if (failOnMissing) {
+            throw new IllegalStateException("Missing Mongo indexes: " + missing);
+        }
+    }
+}
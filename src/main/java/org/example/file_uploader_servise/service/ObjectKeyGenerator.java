@@ -0,0 +1,21 @@
+package org.example.file_uploader_servise.service;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class ObjectKeyGenerator {
+
+    public String generate(String clientId, String uploadId, String filename) {
+        String safeFilename = filename != null
+                ? filename.replaceAll("[^a-zA-Z0-9._-]", "_")
+                : "file";
+
+        return String.format(
+                "%s/%s/%d-%s",
+                clientId,
+                uploadId,
+                System.currentTimeMillis(),
+                safeFilename
+        );
+    }
+}
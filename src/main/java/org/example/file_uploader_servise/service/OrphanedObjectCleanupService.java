@@ -0,0 +1,245 @@
+package org.example.file_uploader_servise.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Repository.FileMetadataRepository;
+import org.example.file_uploader_servise.Repository.StoredBlobRepository;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.StoredBlob;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.example.file_uploader_servise.service.storage.StorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrphanedObjectCleanupService {
+
+    private static final String JOB = "storage-orphan-gc";
+    private static final long MIN_EXPECTED_KEYS = 10_000;
+
+    private static final List<UploadRequest.Status> ACTIVE_STATUSES =
+            List.of(UploadRequest.Status.PENDING, UploadRequest.Status.PROCESSING);
+
+    private final StorageService storageService;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final StoredBlobRepository storedBlobRepository;
+    private final UploadRequestRepository uploadRequestRepository;
+    private final MongoTemplate mongoTemplate;
+    private final JobLeaseService jobLeaseService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.storage.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.storage.gc.dry-run:true}")
+    private boolean dryRun;
+
+    @Value("${storage.s3.bucket}")
+    private String bucket;
+
+    @Value("${app.storage.gc.min-age-hours:24}")
+    private long minAgeHours;
+
+    @Value("${app.storage.gc.multipart-max-age-hours:24}")
+    private long multipartMaxAgeHours;
+
+    @Value("${app.storage.gc.delete-batch-size:1000}")
+    private int deleteBatchSize;
+
+    @Value("${app.storage.gc.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.scheduling.lease.cron-window-millis:3600000}")
+    private long cronWindowMillis;
+
+    @Scheduled(cron = "${app.storage.gc.cron:0 30 4 * * ?}")
+    public void collectOrphanedObjects() {
+        if (!enabled) {
+            return;
+        }
+
+        log.debug("Starting orphaned objects collection");
+
+        jobLeaseService.runExclusively(JOB, Duration.ofMillis(cronWindowMillis), lease -> {
+            try {
+                collect(lease);
+            } catch (Exception e) {
+                log.error("Orphaned objects collection failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private void collect(JobLeaseService.Lease lease) {
+        Instant now = Instant.now();
+        Instant objectCutoff = now.minus(Duration.ofHours(minAgeHours));
+        Instant multipartCutoff = now.minus(Duration.ofHours(multipartMaxAgeHours));
+
+        Set<String> activeMultipartUploads = new HashSet<>();
+        BloomFilter referenced = referencedKeys(activeMultipartUploads);
+
+        if (!lease.renew()) {
+            return;
+        }
+
+        Sweep sweep = sweepObjects(lease, referenced, objectCutoff);
+        int aborted = abortStaleMultipartUploads(lease, activeMultipartUploads, multipartCutoff);
+
+        log.info("Orphaned objects collection finished: scanned={}, orphaned={}, deleted={}, bytes={}, " +
+                        "abortedMultipartUploads={}, dryRun={}",
+                sweep.scanned, sweep.orphaned, sweep.deleted, sweep.orphanedBytes, aborted, dryRun);
+    }
+
+    private BloomFilter referencedKeys(Set<String> activeMultipartUploads) {
+        long expected = mongoTemplate.estimatedCount(FileMetadata.class)
+                + mongoTemplate.estimatedCount(StoredBlob.class)
+                + mongoTemplate.estimatedCount(UploadRequest.class);
+
+        BloomFilter filter = new BloomFilter(Math.max(expected + expected / 4, MIN_EXPECTED_KEYS), falsePositiveRate);
+
+        try (Stream<FileMetadata> metadata = fileMetadataRepository.findAllStorageKeys()) {
+            putKeys(filter, metadata.map(FileMetadata::getStorageInfo));
+        }
+
+        try (Stream<StoredBlob> blobs = storedBlobRepository.findAllStorageKeys()) {
+            putKeys(filter, blobs.map(StoredBlob::getStorageInfo));
+        }
+
+        try (Stream<UploadRequest> requests = uploadRequestRepository.findStorageKeysByStatusIn(ACTIVE_STATUSES)) {
+            requests.forEach(request -> {
+                if (request.getObjectKey() != null) {
+                    filter.put(storageService.listingKey(request.getObjectKey()));
+                }
+                if (request.getStorageUploadId() != null) {
+                    activeMultipartUploads.add(request.getStorageUploadId());
+                }
+            });
+        }
+
+        log.debug("Built referenced keys filter: expected={}, bytes={}", expected, filter.sizeInBytes());
+        return filter;
+    }
+
+    private void putKeys(BloomFilter filter, Stream<FileMetadata.StorageInfo> storageInfos) {
+        storageInfos.filter(Objects::nonNull)
+                .map(FileMetadata.StorageInfo::getKey)
+                .filter(Objects::nonNull)
+                .forEach(key -> filter.put(storageService.listingKey(key)));
+    }
+
+    private Sweep sweepObjects(JobLeaseService.Lease lease, BloomFilter referenced, Instant cutoff) {
+        Sweep sweep = new Sweep();
+        List<StorageService.StoredObject> batch = new ArrayList<>(deleteBatchSize);
+
+        try (Stream<StorageService.StoredObject> listing = storageService.listObjects(bucket)) {
+            Iterator<StorageService.StoredObject> objects = listing.iterator();
+
+            while (objects.hasNext()) {
+                StorageService.StoredObject object = objects.next();
+                sweep.scanned++;
+
+                if (!object.lastModified().isAfter(cutoff) && !referenced.mightContain(object.key())) {
+                    batch.add(object);
+                }
+
+                if (batch.size() >= deleteBatchSize) {
+                    delete(batch, sweep);
+                    batch.clear();
+                }
+
+                if (sweep.scanned % deleteBatchSize == 0 && !lease.renew()) {
+                    return sweep;
+                }
+            }
+        }
+
+        delete(batch, sweep);
+        return sweep;
+    }
+
+    private void delete(List<StorageService.StoredObject> batch, Sweep sweep) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long bytes = batch.stream().mapToLong(StorageService.StoredObject::size).sum();
+        sweep.orphaned += batch.size();
+        sweep.orphanedBytes += bytes;
+        meterRegistry.counter("storage.gc.bytes", "result", dryRun ? "dry_run" : "orphaned").increment(bytes);
+
+        if (dryRun) {
+            batch.forEach(object -> log.info("Orphaned object {} ({} bytes) would be deleted", object.key(), object.size()));
+            meterRegistry.counter("storage.gc.objects", "result", "dry_run").increment(batch.size());
+            return;
+        }
+
+        int deleted;
+        try {
+            deleted = storageService.deleteObjects(bucket, List.copyOf(batch));
+        } catch (StorageService.StorageException e) {
+            log.warn("Failed to delete {} orphaned objects: {}", batch.size(), e.getMessage());
+            deleted = 0;
+        }
+
+        sweep.deleted += deleted;
+        meterRegistry.counter("storage.gc.objects", "result", "deleted").increment(deleted);
+        meterRegistry.counter("storage.gc.objects", "result", "failed").increment(batch.size() - deleted);
+    }
+
+    private int abortStaleMultipartUploads(JobLeaseService.Lease lease, Set<String> active, Instant cutoff) {
+        int aborted = 0;
+
+        try (Stream<StorageService.PendingMultipartUpload> listing = storageService.listMultipartUploads(bucket)) {
+            Iterator<StorageService.PendingMultipartUpload> uploads = listing.iterator();
+
+            while (uploads.hasNext()) {
+                StorageService.PendingMultipartUpload upload = uploads.next();
+                if (upload.initiated().isAfter(cutoff) || active.contains(upload.uploadId())) {
+                    continue;
+                }
+
+                if (dryRun) {
+                    log.info("Stale multipart upload {} for {} would be aborted", upload.uploadId(), upload.key());
+                    continue;
+                }
+
+                try {
+                    storageService.abortMultipartUpload(bucket, upload.key(), upload.uploadId());
+                    aborted++;
+                    meterRegistry.counter("storage.gc.multipart", "result", "aborted").increment();
+                } catch (StorageService.StorageException e) {
+                    log.warn("Failed to abort multipart upload {}: {}", upload.uploadId(), e.getMessage());
+                    meterRegistry.counter("storage.gc.multipart", "result", "failed").increment();
+                }
+
+                if (aborted % deleteBatchSize == 0 && !lease.renew()) {
+                    break;
+                }
+            }
+        }
+
+        return aborted;
+    }
+
+    private static final class Sweep {
+        private long scanned;
+        private long orphaned;
+        private long deleted;
+        private long orphanedBytes;
+    }
+}
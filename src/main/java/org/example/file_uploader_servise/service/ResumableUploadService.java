@@ -0,0 +1,243 @@
+package org.example.file_uploader_servise.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Dto.ResumableUploadDto;
+import org.example.file_uploader_servise.Dto.UploadRequestDto;
+import org.example.file_uploader_servise.Repository.FileMetadataRepository;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.exception.FileUploadException;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.example.file_uploader_servise.service.storage.S3MultipartUploader;
+import org.example.file_uploader_servise.service.storage.StorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumableUploadService {
+
+    private static final int MAX_CHUNKS = 10_000;
+
+    private final StorageService storageService;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final UploadRequestRepository uploadRequestRepository;
+    private final ObjectKeyGenerator objectKeyGenerator;
+    private final UploadEventService uploadEventService;
+
+    @Value("${storage.s3.bucket:uploads}")
+    private String bucket;
+
+    @Value("${app.upload.resumable.chunk-size-bytes:8388608}")
+    private long chunkSize;
+
+    @Value("${app.upload.resumable.max-file-size-bytes:5368709120}")
+    private long maxFileSize;
+
+    public UploadRequestRepository.Claim initiate(
+            String clientId,
+            String uploadId,
+            String originalFilename,
+            String contentType,
+            long fileSize
+    ) {
+        if (fileSize <= 0) {
+            throw new FileUploadException("File size must be positive");
+        }
+        if (fileSize > maxFileSize) {
+            throw new FileUploadException("File size exceeds " + maxFileSize + " bytes");
+        }
+
+        long effectiveChunkSize = Math.max(chunkSize, S3MultipartUploader.MIN_PART_SIZE);
+        long totalChunks = (fileSize + effectiveChunkSize - 1) / effectiveChunkSize;
+        if (totalChunks > MAX_CHUNKS) {
+            throw new FileUploadException("File requires more than " + MAX_CHUNKS + " chunks");
+        }
+
+        String objectKey = objectKeyGenerator.generate(clientId, uploadId, originalFilename);
+        String storageUploadId = storageService.initiateMultipartUpload(bucket, objectKey, contentType, new HashMap<>());
+
+        UploadRequest request = UploadRequest.builder()
+                .id(UUID.randomUUID().toString())
+                .clientId(clientId)
+                .uploadId(uploadId)
+                .originalFilename(originalFilename)
+                .contentType(contentType)
+                .fileSize(fileSize)
+                .status(UploadRequest.Status.PENDING)
+                .attemptCount(1)
+                .objectKey(objectKey)
+                .storageUploadId(storageUploadId)
+                .chunkSize(effectiveChunkSize)
+                .totalChunks((int) totalChunks)
+                .chunks(new HashMap<>())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        UploadRequestRepository.Claim claim = uploadRequestRepository.claim(request);
+
+        if (!claim.created()) {
+            abort(request);
+            return claim;
+        }
+
+        log.info("Resumable upload initiated: requestId={}, clientId={}, chunks={}",
+                request.getId(), clientId, totalChunks);
+
+        return claim;
+    }
+
+    public ResumableUploadDto uploadChunk(
+            UploadRequest request,
+            int chunkNumber,
+            InputStream inputStream,
+            long contentLength
+    ) {
+        requireActiveSession(request);
+
+        if (chunkNumber < 1 || chunkNumber > request.getTotalChunks()) {
+            throw new FileUploadException("Chunk number must be between 1 and " + request.getTotalChunks());
+        }
+
+        long expectedSize = request.expectedChunkSize(chunkNumber);
+        if (contentLength != expectedSize) {
+            throw new FileUploadException(
+                    "Chunk " + chunkNumber + " must be exactly " + expectedSize + " bytes, got " + contentLength);
+        }
+
+        String eTag = storageService.uploadPart(
+                bucket,
+                request.getObjectKey(),
+                request.getStorageUploadId(),
+                chunkNumber,
+                inputStream,
+                expectedSize
+        );
+
+        UploadRequest.ChunkInfo chunk = UploadRequest.ChunkInfo.builder()
+                .size(expectedSize)
+                .eTag(eTag)
+                .uploadedAt(LocalDateTime.now())
+                .build();
+
+        if (!uploadRequestRepository.recordChunk(request.getId(), chunkNumber, chunk)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is no longer active");
+        }
+
+        log.debug("Chunk stored: requestId={}, chunk={}, bytes={}", request.getId(), chunkNumber, expectedSize);
+
+        UploadRequest updated = uploadRequestRepository.findById(request.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+
+        uploadEventService.publishStatus(updated);
+        uploadEventService.publishProgress(updated, updated.getChunks().values().stream()
+                .mapToLong(UploadRequest.ChunkInfo::getSize)
+                .sum());
+
+        return ResumableUploadDto.fromUploadRequest(updated);
+    }
+
+    public UploadRequestDto complete(UploadRequest request) {
+        requireActiveSession(request);
+
+        ResumableUploadDto state = ResumableUploadDto.fromUploadRequest(request);
+        if (!state.getMissingChunks().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Missing chunks: " + state.getMissingChunks());
+        }
+
+        SortedMap<Integer, String> partETags = new TreeMap<>();
+        request.getChunks().forEach((number, chunk) -> partETags.put(Integer.valueOf(number), chunk.getETag()));
+
+        try {
+            FileMetadata.StorageInfo storageInfo = storageService.completeMultipartUpload(
+                    bucket,
+                    request.getObjectKey(),
+                    request.getStorageUploadId(),
+                    partETags
+            );
+
+            FileMetadata fileMetadata = FileMetadata.builder()
+                    .id(UUID.randomUUID().toString())
+                    .clientId(request.getClientId())
+                    .uploadRequestId(request.getId())
+                    .uploadId(request.getUploadId())
+                    .originalFilename(request.getOriginalFilename())
+                    .contentType(request.getContentType())
+                    .size(request.getFileSize())
+                    .storageInfo(storageInfo)
+                    .status(FileMetadata.Status.COMPLETED)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+            fileMetadataRepository.insert(fileMetadata);
+
+            if (!uploadRequestRepository.markCompleted(request.getId(), fileMetadata.getId(), null, null)) {
+                fileMetadataRepository.deleteById(fileMetadata.getId());
+
+                UploadRequest current = uploadRequestRepository.findById(request.getId()).orElse(null);
+                if (current != null && current.getStatus() == UploadRequest.Status.COMPLETED) {
+                    log.info("Resumable upload already completed: requestId={}", request.getId());
+                    return existingResult(current);
+                }
+
+                storageService.deleteFile(bucket, request.getObjectKey());
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is no longer active");
+            }
+            request.markCompleted(fileMetadata.getId());
+            uploadEventService.publishStatus(request);
+
+            log.info("Resumable upload completed: requestId={}, chunks={}", request.getId(), partETags.size());
+
+            return UploadRequestDto.completed(request, fileMetadata.getId(), storageInfo.getUrl());
+
+        } catch (StorageService.StorageException e) {
+            log.error("Resumable upload completion failed: requestId={}, error={}",
+                    request.getId(), e.getMessage(), e);
+            if (uploadRequestRepository.markFailed(request.getId(), e.getMessage())) {
+                request.markFailed(e.getMessage());
+                uploadEventService.publishStatus(request);
+            }
+            throw e;
+        }
+    }
+
+    public void abort(UploadRequest request) {
+        if (!request.isResumable()) {
+            return;
+        }
+        try {
+            storageService.abortMultipartUpload(bucket, request.getObjectKey(), request.getStorageUploadId());
+        } catch (StorageService.StorageException e) {
+            log.warn("Failed to abort multipart upload for request {}: {}", request.getId(), e.getMessage());
+        }
+    }
+
+    private void requireActiveSession(UploadRequest request) {
+        if (!request.isResumable() || request.isDirect()) {
+            throw new FileUploadException("Upload was not started as resumable");
+        }
+        if (!request.isActive()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is no longer active");
+        }
+    }
+
+    private UploadRequestDto existingResult(UploadRequest request) {
+        String fileUrl = fileMetadataRepository.findById(request.getFileMetadataId())
+                .map(metadata -> metadata.getStorageInfo().getUrl())
+                .orElse(null);
+        return UploadRequestDto.completed(request, request.getFileMetadataId(), fileUrl);
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.file_uploader_servise.service;
+
+import java.nio.file.Path;
+
+public record StagedFile(
+        Path path,
+        String originalFilename,
+        String contentType,
+        long size
+) {
+}
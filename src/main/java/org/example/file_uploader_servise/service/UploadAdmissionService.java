@@ -0,0 +1,159 @@
+package org.example.file_uploader_servise.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.exception.UploadRejectedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+public class UploadAdmissionService {
+
+    public static final String PERMIT_ATTRIBUTE = UploadAdmissionService.class.getName() + ".permit";
+
+    @Value("${app.upload.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upload.admission.max-in-flight-requests:100}")
+    private int maxInFlightRequests;
+
+    @Value("${app.upload.admission.max-in-flight-bytes:2147483648}")
+    private long maxInFlightBytes;
+
+    @Value("${app.upload.admission.per-client-max-in-flight-requests:20}")
+    private int perClientMaxInFlightRequests;
+
+    @Value("${app.upload.admission.per-client-max-in-flight-bytes:536870912}")
+    private long perClientMaxInFlightBytes;
+
+    @Value("${app.upload.admission.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Budget> clientBudgets = new HashMap<>();
+    private final Budget globalBudget = new Budget();
+
+    public Permit admit(String clientKey, long bytes) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+
+        long requestedBytes = Math.max(bytes, 0);
+
+        lock.lock();
+        try {
+            return reserve(clientKey, requestedBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Permit reserve(String clientKey, long requestedBytes) {
+        if (globalBudget.requests + 1 > maxInFlightRequests
+                || globalBudget.bytes + requestedBytes > maxInFlightBytes) {
+            log.warn("Upload rejected, service saturated: inFlightRequests={}, inFlightBytes={}",
+                    globalBudget.requests, globalBudget.bytes);
+            throw UploadRejectedException.saturated("Upload capacity exhausted, retry later", retryAfterSeconds);
+        }
+
+        Budget clientBudget = clientBudgets.computeIfAbsent(clientKey, key -> new Budget());
+        if (clientBudget.requests + 1 > perClientMaxInFlightRequests
+                || clientBudget.bytes + requestedBytes > perClientMaxInFlightBytes) {
+            if (clientBudget.requests == 0) {
+                clientBudgets.remove(clientKey);
+            }
+            log.warn("Upload rejected, client budget exhausted: client={}, inFlightRequests={}, inFlightBytes={}",
+                    clientKey, clientBudget.requests, clientBudget.bytes);
+            throw UploadRejectedException.clientLimit("Too many concurrent uploads for client", retryAfterSeconds);
+        }
+
+        clientBudget.add(1, requestedBytes);
+        globalBudget.add(1, requestedBytes);
+
+        return new Permit(this, clientKey, requestedBytes);
+    }
+
+    public Permit takeOver(HttpServletRequest request) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        return permit instanceof Permit p ? p : Permit.NONE;
+    }
+
+    public UploadRejectedException saturated() {
+        return UploadRejectedException.saturated("Upload queue is full, retry later", retryAfterSeconds);
+    }
+
+    public int getInFlightRequests() {
+        lock.lock();
+        try {
+            return globalBudget.requests;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getInFlightBytes() {
+        lock.lock();
+        try {
+            return globalBudget.bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(String clientKey, long bytes) {
+        lock.lock();
+        try {
+            globalBudget.add(-1, -bytes);
+
+            Budget clientBudget = clientBudgets.get(clientKey);
+            if (clientBudget != null) {
+                clientBudget.add(-1, -bytes);
+                if (clientBudget.requests <= 0) {
+                    clientBudgets.remove(clientKey);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Budget {
+        private int requests;
+        private long bytes;
+
+        private void add(int requestDelta, long bytesDelta) {
+            requests += requestDelta;
+            bytes += bytesDelta;
+        }
+    }
+
+    public static final class Permit implements AutoCloseable {
+
+        static final Permit NONE = new Permit(null, null, 0);
+
+        private final UploadAdmissionService owner;
+        private final String clientKey;
+        private final long bytes;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(UploadAdmissionService owner, String clientKey, long bytes) {
+            this.owner = owner;
+            this.clientKey = clientKey;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void close() {
+            if (owner != null && released.compareAndSet(false, true)) {
+                owner.release(clientKey, bytes);
+            }
+        }
+    }
+}
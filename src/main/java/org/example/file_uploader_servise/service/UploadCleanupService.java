@@ -1,22 +1,49 @@
 package org.example.file_uploader_servise.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Repository.CleanupCheckpointRepository;
+import org.example.file_uploader_servise.Repository.FileMetadataRepository;
 import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.model.CleanupCheckpoint;
+import org.example.file_uploader_servise.model.FileMetadata;
 import org.example.file_uploader_servise.model.UploadRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.ToLongBiFunction;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UploadCleanupService {
 
+    private static final String STALLED_JOB = "stalled-uploads";
+    private static final String OLD_RECORDS_JOB = "old-records";
+
+    private static final List<UploadRequest.Status> ACTIVE_STATUSES =
+            List.of(UploadRequest.Status.PENDING, UploadRequest.Status.PROCESSING);
+    private static final List<UploadRequest.Status> FINISHED_STATUSES =
+            List.of(UploadRequest.Status.COMPLETED, UploadRequest.Status.FAILED);
+
     private final UploadRequestRepository uploadRequestRepository;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final CleanupCheckpointRepository cleanupCheckpointRepository;
+    private final DeduplicationService deduplicationService;
+    private final JobLeaseService jobLeaseService;
+    private final UploadStagingService uploadStagingService;
+    private final UploadRecordCache uploadRecordCache;
+    private final ResumableUploadService resumableUploadService;
+    private final UploadEventService uploadEventService;
 
     @Value("${app.upload.cleanup.stalled-threshold-seconds:1800}")
     private int stalledThresholdSeconds;
@@ -24,8 +51,28 @@ public class UploadCleanupService {
     @Value("${app.upload.cleanup.enabled:true}")
     private boolean cleanupEnabled;
 
+    @Value("${app.upload.cleanup.retention-days:30}")
+    private long retentionDays;
+
+    @Value("${app.upload.cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.upload.cleanup.batch-pause-millis:100}")
+    private long batchPauseMillis;
+
+    @Value("${app.upload.cleanup.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.upload.cleanup.staging-max-age-millis:21600000}")
+    private long stagingMaxAgeMillis;
+
+    @Value("${app.upload.cleanup.interval-seconds:30000}")
+    private long stalledIntervalMillis;
+
+    @Value("${app.scheduling.lease.cron-window-millis:3600000}")
+    private long cronWindowMillis;
+
     @Scheduled(fixedDelayString = "${app.upload.cleanup.interval-seconds:30000}")
-    @Transactional
     public void cleanupStalledUploads() {
         if (!cleanupEnabled) {
             return;
@@ -33,37 +80,28 @@ public class UploadCleanupService {
 
         log.debug("Starting stalled uploads cleanup");
 
-        LocalDateTime threshold = LocalDateTime.now()
-                .minusSeconds(stalledThresholdSeconds);
-
-        List<UploadRequest> stalledUploads = uploadRequestRepository
-                .findByStatusAndUpdatedAtBefore(UploadRequest.Status.PROCESSING, threshold);
-
-        int cleanedCount = 0;
+        String error = "Operation stalled - timeout after " + stalledThresholdSeconds + " seconds";
 
-        for (UploadRequest stalled : stalledUploads) {
+        jobLeaseService.runExclusively(STALLED_JOB, Duration.ofMillis(stalledIntervalMillis), lease -> {
             try {
-                log.warn("Found stalled upload: id={}, clientId={}, lastUpdate={}, attemptCount={}",
-                        stalled.getId(), stalled.getClientId(), stalled.getUpdatedAt(),
-                        stalled.getAttemptCount());
-
-                stalled.markFailed("Operation stalled - timeout after " + stalledThresholdSeconds + " seconds");
-                uploadRequestRepository.save(stalled);
-                cleanedCount++;
+                long cleanedCount = processInBatches(
+                        STALLED_JOB,
+                        lease,
+                        ACTIVE_STATUSES,
+                        LocalDateTime.now().minusSeconds(stalledThresholdSeconds),
+                        (page, threshold) -> failStalled(page, threshold, error)
+                );
 
+                if (cleanedCount > 0) {
+                    log.info("Cleaned up {} stalled uploads", cleanedCount);
+                }
             } catch (Exception e) {
-                log.error("Failed to cleanup stalled upload {}: {}",
-                        stalled.getId(), e.getMessage(), e);
+                log.error("Stalled uploads cleanup failed: {}", e.getMessage(), e);
             }
-        }
-
-        if (cleanedCount > 0) {
-            log.info("Cleaned up {} stalled uploads", cleanedCount);
-        }
+        });
     }
 
     @Scheduled(cron = "${app.upload.cleanup.old-records-cron:0 0 3 * * ?}")
-    @Transactional
     public void cleanupOldRecords() {
         if (!cleanupEnabled) {
             return;
@@ -71,31 +109,125 @@ public class UploadCleanupService {
 
         log.debug("Starting old records cleanup");
 
-        LocalDateTime threshold = LocalDateTime.now().minusDays(30);
+        jobLeaseService.runExclusively(OLD_RECORDS_JOB, Duration.ofMillis(cronWindowMillis), lease -> {
+            try {
+                long deletedCount = processInBatches(
+                        OLD_RECORDS_JOB,
+                        lease,
+                        FINISHED_STATUSES,
+                        LocalDateTime.now().minusDays(retentionDays),
+                        (page, threshold) -> purge(page)
+                );
 
-        List<UploadRequest> oldRequests = uploadRequestRepository
-                .findByStatusAndUpdatedAtBefore(UploadRequest.Status.COMPLETED, threshold);
+                if (deletedCount > 0) {
+                    log.info("Deleted {} old records", deletedCount);
+                }
+            } catch (Exception e) {
+                log.error("Old records cleanup failed: {}", e.getMessage(), e);
+            }
+        });
+    }
 
-        oldRequests.addAll(uploadRequestRepository
-                .findByStatusAndUpdatedAtBefore(UploadRequest.Status.FAILED, threshold));
+    private long processInBatches(
+            String job,
+            JobLeaseService.Lease lease,
+            List<UploadRequest.Status> statuses,
+            LocalDateTime threshold,
+            ToLongBiFunction<List<UploadRequest>, LocalDateTime> handler
+    ) {
+        CleanupCheckpoint checkpoint = cleanupCheckpointRepository.findById(job)
+                .orElseGet(() -> CleanupCheckpoint.builder()
+                        .job(job)
+                        .threshold(threshold)
+                        .startedAt(LocalDateTime.now())
+                        .build());
 
-        int deletedCount = 0;
-        for (UploadRequest oldRequest : oldRequests) {
-            try {
-                log.info("Removing old upload record: id={}, status={}, updatedAt={}",
-                        oldRequest.getId(), oldRequest.getStatus(), oldRequest.getUpdatedAt());
+        if (checkpoint.getLastId() != null) {
+            log.info("Resuming cleanup job {} from checkpoint: processed={}, lastId={}",
+                    job, checkpoint.getProcessed(), checkpoint.getLastId());
+        }
 
-                uploadRequestRepository.delete(oldRequest);
-                deletedCount++;
+        long affected = 0;
 
-            } catch (Exception e) {
-                log.error("Failed to cleanup old record {}: {}",
-                        oldRequest.getId(), e.getMessage(), e);
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<UploadRequest> page = uploadRequestRepository.findCleanupPage(
+                    statuses,
+                    checkpoint.getThreshold(),
+                    checkpoint.getLastUpdatedAt(),
+                    checkpoint.getLastId(),
+                    batchSize
+            );
+
+            if (page.isEmpty()) {
+                cleanupCheckpointRepository.deleteById(job);
+                return affected;
+            }
+
+            affected += handler.applyAsLong(page, checkpoint.getThreshold());
+
+            UploadRequest last = page.get(page.size() - 1);
+            checkpoint.setLastUpdatedAt(last.getUpdatedAt());
+            checkpoint.setLastId(last.getId());
+            checkpoint.setProcessed(checkpoint.getProcessed() + page.size());
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+
+            if (page.size() < batchSize) {
+                cleanupCheckpointRepository.deleteById(job);
+                return affected;
+            }
+
+            cleanupCheckpointRepository.save(checkpoint);
+
+            if (!pause() || !lease.renew()) {
+                return affected;
             }
         }
 
-        if (deletedCount > 0) {
-            log.info("Deleted {} old records", deletedCount);
+        log.info("Cleanup job {} reached {} batches, resuming from checkpoint on next run: processed={}",
+                job, maxBatchesPerRun, checkpoint.getProcessed());
+        return affected;
+    }
+
+    private long failStalled(List<UploadRequest> page, LocalDateTime threshold, String error) {
+        List<UploadRequest> failed = uploadRequestRepository.failStalled(ids(page), threshold, error);
+        failed.forEach(request -> {
+            resumableUploadService.abort(request);
+            uploadEventService.publishStatus(request);
+        });
+        return failed.size();
+    }
+
+    private long purge(List<UploadRequest> page) {
+        List<String> fileMetadataIds = page.stream()
+                .map(UploadRequest::getFileMetadataId)
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (!fileMetadataIds.isEmpty()) {
+            List<FileMetadata> metadata = fileMetadataRepository.findAllById(fileMetadataIds);
+            metadata.forEach(deduplicationService::release);
+            fileMetadataRepository.deleteAllById(metadata.stream().map(FileMetadata::getId).toList());
+        }
+
+        uploadRequestRepository.deleteAllById(ids(page));
+        uploadRecordCache.evict(page);
+        return page.size();
+    }
+
+    private List<String> ids(List<UploadRequest> page) {
+        return page.stream().map(UploadRequest::getId).toList();
+    }
+
+    private boolean pause() {
+        if (batchPauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
 
@@ -105,5 +237,39 @@ public class UploadCleanupService {
             return;
         }
         log.debug("Starting temporary files cleanup");
+
+        Instant threshold = Instant.now().minusMillis(stagingMaxAgeMillis);
+        int deleted = 0;
+
+        try (Stream<Path> files = Files.list(uploadStagingService.getStagingDir())) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (isStale(file, threshold) && deleteQuietly(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Temporary files cleanup failed: {}", e.getMessage(), e);
+        }
+
+        if (deleted > 0) {
+            log.info("Deleted {} stale staged files", deleted);
+        }
+    }
+
+    private boolean isStale(Path file, Instant threshold) {
+        try {
+            return Files.isRegularFile(file) && Files.getLastModifiedTime(file).toInstant().isBefore(threshold);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete staged file {}: {}", file, e.getMessage());
+            return false;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,364 @@
+package org.example.file_uploader_servise.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Dto.UploadEventDto;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadEventService {
+
+    private static final String STATUS_EVENT = "status";
+    private static final String PROGRESS_EVENT = "progress";
+
+    private final UploadRequestRepository uploadRequestRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Qualifier("sseExecutor")
+    private final Executor sseExecutor;
+
+    private final Map<String, Topic> requestTopics = new ConcurrentHashMap<>();
+    private final Map<String, Topic> clientTopics = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastRefresh = LocalDateTime.now();
+
+    @Value("${app.upload.events.timeout-millis:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.upload.events.progress-interval-millis:500}")
+    private long progressIntervalMillis;
+
+    @Value("${app.upload.events.queue-capacity:16}")
+    private int queueCapacity;
+
+    public SseEmitter subscribe(UploadRequest request) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+
+        if (!request.isActive()) {
+            try {
+                emitter.send(SseEmitter.event().name(STATUS_EVENT)
+                        .data(UploadEventDto.status(request), MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+
+        Subscriber subscriber = new Subscriber(emitter);
+        Topic topic = register(requestTopics, request.getId(), subscriber);
+        topic.advance(request.getId(), request.getStatus());
+        subscriber.offer(Event.status(request.getId(), UploadEventDto.status(request)));
+        return emitter;
+    }
+
+    public SseEmitter subscribeClient(String clientId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(clientTopics, clientId, new Subscriber(emitter));
+        return emitter;
+    }
+
+    public void publishStatus(UploadRequest request) {
+        Topic requestTopic = requestTopics.get(request.getId());
+        Topic clientTopic = clientTopics.get(request.getClientId());
+        if (requestTopic == null && clientTopic == null) {
+            return;
+        }
+
+        Event event = Event.status(request.getId(), UploadEventDto.status(request));
+
+        if (clientTopic != null && clientTopic.advance(request.getId(), request.getStatus())) {
+            clientTopic.broadcast(event);
+            if (!request.isActive()) {
+                clientTopic.finish(request.getId());
+            }
+        }
+
+        if (requestTopic != null && requestTopic.advance(request.getId(), request.getStatus())) {
+            requestTopic.broadcast(event);
+            if (!request.isActive()) {
+                requestTopic.broadcast(Event.COMPLETE);
+            }
+        }
+    }
+
+    public void publishProgress(UploadRequest request, long bytesTransferred) {
+        Topic requestTopic = requestTopics.get(request.getId());
+        Topic clientTopic = clientTopics.get(request.getClientId());
+        if (requestTopic == null && clientTopic == null) {
+            return;
+        }
+
+        Event event = Event.progress(request.getId(), UploadEventDto.progress(request, bytesTransferred));
+
+        if (requestTopic != null && requestTopic.shouldReportProgress(request.getId(), progressIntervalMillis)) {
+            requestTopic.broadcast(event);
+        }
+        if (clientTopic != null && clientTopic.shouldReportProgress(request.getId(), progressIntervalMillis)) {
+            clientTopic.broadcast(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.events.refresh-interval-millis:15000}")
+    public void refresh() {
+        LocalDateTime since = lastRefresh;
+        lastRefresh = LocalDateTime.now();
+
+        try {
+            if (!requestTopics.isEmpty()) {
+                uploadRequestRepository.findAllById(List.copyOf(requestTopics.keySet()))
+                        .forEach(this::publishStatus);
+            }
+            if (!clientTopics.isEmpty()) {
+                uploadRequestRepository.findByClientIdInAndUpdatedAtAfter(List.copyOf(clientTopics.keySet()), since)
+                        .forEach(this::publishStatus);
+                clientTopics.values().forEach(topic -> topic.forgetFinishedBefore(since));
+            }
+        } catch (RuntimeException e) {
+            lastRefresh = since;
+            log.warn("Failed to refresh upload event subscriptions: {}", e.getMessage());
+        }
+
+        requestTopics.values().forEach(topic -> topic.broadcast(Event.HEARTBEAT));
+        clientTopics.values().forEach(topic -> topic.broadcast(Event.HEARTBEAT));
+    }
+
+    private Topic register(Map<String, Topic> topics, String key, Subscriber subscriber) {
+        Topic topic = topics.compute(key, (k, existing) -> {
+            Topic target = existing != null ? existing : new Topic();
+            target.subscribers.add(subscriber);
+            return target;
+        });
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> unregister(topics, key, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unregister(topics, key, subscriber));
+
+        return topic;
+    }
+
+    private void unregister(Map<String, Topic> topics, String key, Subscriber subscriber) {
+        subscriber.close();
+        topics.computeIfPresent(key, (k, topic) -> {
+            topic.subscribers.remove(subscriber);
+            return topic.subscribers.isEmpty() ? null : topic;
+        });
+    }
+
+    private record Event(Kind kind, String uploadRequestId, Object data) {
+
+        private static final Event HEARTBEAT = new Event(Kind.HEARTBEAT, null, null);
+        private static final Event COMPLETE = new Event(Kind.COMPLETE, null, null);
+
+        private static Event status(String uploadRequestId, UploadEventDto data) {
+            return new Event(Kind.STATUS, uploadRequestId, data);
+        }
+
+        private static Event progress(String uploadRequestId, UploadEventDto data) {
+            return new Event(Kind.PROGRESS, uploadRequestId, data);
+        }
+
+        private boolean droppable() {
+            return kind == Kind.PROGRESS || kind == Kind.HEARTBEAT;
+        }
+
+        private void deliver(SseEmitter emitter) throws IOException {
+            switch (kind) {
+                case STATUS -> emitter.send(SseEmitter.event().name(STATUS_EVENT).data(data, MediaType.APPLICATION_JSON));
+                case PROGRESS -> emitter.send(SseEmitter.event().name(PROGRESS_EVENT).data(data, MediaType.APPLICATION_JSON));
+                case HEARTBEAT -> emitter.send(SseEmitter.event().comment("keepalive"));
+                case COMPLETE -> emitter.complete();
+            }
+        }
+
+        private enum Kind {
+            STATUS, PROGRESS, HEARTBEAT, COMPLETE
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Event> pending = new ArrayList<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Event event) {
+            boolean overflowed;
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                boolean queued = enqueue(event);
+                overflowed = closed;
+                if (!queued || draining) {
+                    if (overflowed) {
+                        emitter.completeWithError(new IOException("Event subscriber is not keeping up"));
+                    }
+                    return;
+                }
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                sseExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                lock.lock();
+                try {
+                    draining = false;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private boolean enqueue(Event event) {
+            if (event.kind() == Event.Kind.PROGRESS) {
+                for (int i = 0; i < pending.size(); i++) {
+                    Event queued = pending.get(i);
+                    if (queued.kind() == Event.Kind.PROGRESS && queued.uploadRequestId().equals(event.uploadRequestId())) {
+                        pending.set(i, event);
+                        meterRegistry.counter("upload.events.coalesced").increment();
+                        return true;
+                    }
+                }
+            }
+
+            if (pending.size() >= queueCapacity && !evictDroppable(event)) {
+                return false;
+            }
+
+            pending.add(event);
+            return true;
+        }
+
+        private boolean evictDroppable(Event incoming) {
+            if (incoming.droppable()) {
+                meterRegistry.counter("upload.events.dropped", "kind", incoming.kind().name().toLowerCase()).increment();
+                return false;
+            }
+
+            for (int i = 0; i < pending.size(); i++) {
+                if (pending.get(i).droppable()) {
+                    Event dropped = pending.remove(i);
+                    meterRegistry.counter("upload.events.dropped", "kind", dropped.kind().name().toLowerCase()).increment();
+                    return true;
+                }
+            }
+
+            log.warn("Event subscriber is not keeping up, closing stream");
+            meterRegistry.counter("upload.events.dropped", "kind", "subscriber").increment();
+            closed = true;
+            pending.clear();
+            return false;
+        }
+
+        private void drain() {
+            while (true) {
+                Event event;
+                lock.lock();
+                try {
+                    if (closed || pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    event = pending.remove(0);
+                } finally {
+                    lock.unlock();
+                }
+
+                try {
+                    event.deliver(emitter);
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            lock.lock();
+            try {
+                closed = true;
+                pending.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Topic {
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final Map<String, UploadRequest.Status> lastStatus = new ConcurrentHashMap<>();
+        private final Map<String, Long> lastProgressAt = new ConcurrentHashMap<>();
+        private final Map<String, LocalDateTime> finishedAt = new ConcurrentHashMap<>();
+
+        private boolean advance(String uploadRequestId, UploadRequest.Status status) {
+            return lastStatus.put(uploadRequestId, status) != status;
+        }
+
+        private boolean shouldReportProgress(String uploadRequestId, long intervalMillis) {
+            long now = System.currentTimeMillis();
+            Long previous = lastProgressAt.get(uploadRequestId);
+            if (previous != null && now - previous < intervalMillis) {
+                return false;
+            }
+            return previous == null
+                    ? lastProgressAt.putIfAbsent(uploadRequestId, now) == null
+                    : lastProgressAt.replace(uploadRequestId, previous, now);
+        }
+
+        private void finish(String uploadRequestId) {
+            finishedAt.put(uploadRequestId, LocalDateTime.now());
+            lastProgressAt.remove(uploadRequestId);
+        }
+
+        private void forgetFinishedBefore(LocalDateTime threshold) {
+            finishedAt.entrySet().removeIf(entry -> {
+                if (!entry.getValue().isBefore(threshold)) {
+                    return false;
+                }
+                lastStatus.remove(entry.getKey());
+                return true;
+            });
+        }
+
+        private void broadcast(Event event) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+}
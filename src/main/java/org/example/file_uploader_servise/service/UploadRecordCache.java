@@ -0,0 +1,128 @@
+package org.example.file_uploader_servise.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Repository.FileMetadataRepository;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class UploadRecordCache {
+
+    private final UploadRequestRepository uploadRequestRepository;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final boolean enabled;
+
+    private final Cache<String, UploadRequest> requestsById;
+    private final Cache<String, UploadRequest> requestsByUploadId;
+    private final Cache<String, FileMetadata> metadataById;
+
+    public UploadRecordCache(
+            UploadRequestRepository uploadRequestRepository,
+            FileMetadataRepository fileMetadataRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.upload.cache.enabled:true}") boolean enabled,
+            @Value("${app.upload.cache.max-size:10000}") long maxSize,
+            @Value("${app.upload.cache.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.uploadRequestRepository = uploadRequestRepository;
+        this.fileMetadataRepository = fileMetadataRepository;
+        this.enabled = enabled;
+
+        this.requestsById = CaffeineCacheMetrics.monitor(
+                meterRegistry, newCache(maxSize, ttlSeconds), "upload.requests.by-id");
+        this.requestsByUploadId = CaffeineCacheMetrics.monitor(
+                meterRegistry, newCache(maxSize, ttlSeconds), "upload.requests.by-upload-id");
+        this.metadataById = CaffeineCacheMetrics.monitor(
+                meterRegistry, newCache(maxSize, ttlSeconds), "upload.file-metadata");
+
+        log.info("Upload record cache: enabled={}, maxSize={}, ttl={}s", enabled, maxSize, ttlSeconds);
+    }
+
+    public Optional<UploadRequest> findById(String uploadRequestId) {
+        if (enabled) {
+            UploadRequest cached = requestsById.getIfPresent(uploadRequestId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<UploadRequest> request = uploadRequestRepository.findById(uploadRequestId);
+        request.ifPresent(this::remember);
+        return request;
+    }
+
+    public Optional<UploadRequest> findByClientIdAndUploadId(String clientId, String uploadId) {
+        Optional<UploadRequest> cached = findFinished(clientId, uploadId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        Optional<UploadRequest> request = uploadRequestRepository.findByClientIdAndUploadId(clientId, uploadId);
+        request.ifPresent(this::remember);
+        return request;
+    }
+
+    public Optional<UploadRequest> findFinished(String clientId, String uploadId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(requestsByUploadId.getIfPresent(uploadKey(clientId, uploadId)));
+    }
+
+    public Optional<FileMetadata> findMetadata(String fileMetadataId) {
+        if (enabled) {
+            FileMetadata cached = metadataById.getIfPresent(fileMetadataId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<FileMetadata> metadata = fileMetadataRepository.findById(fileMetadataId);
+        if (enabled) {
+            metadata.ifPresent(found -> metadataById.put(found.getId(), found));
+        }
+        return metadata;
+    }
+
+    public void remember(UploadRequest request) {
+        if (!enabled || request.getStatus() == null || request.isActive()) {
+            return;
+        }
+        requestsById.put(request.getId(), request);
+        requestsByUploadId.put(uploadKey(request.getClientId(), request.getUploadId()), request);
+    }
+
+    public void evict(Collection<UploadRequest> requests) {
+        for (UploadRequest request : requests) {
+            requestsById.invalidate(request.getId());
+            requestsByUploadId.invalidate(uploadKey(request.getClientId(), request.getUploadId()));
+            if (request.getFileMetadataId() != null) {
+                metadataById.invalidate(request.getFileMetadataId());
+            }
+        }
+    }
+
+    private static String uploadKey(String clientId, String uploadId) {
+        return clientId + '\u0000' + uploadId;
+    }
+
+    private static <V> Cache<String, V> newCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.file_uploader_servise.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.exception.FileUploadException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class UploadStagingService {
+
+    @Value("${app.upload.staging-dir:${java.io.tmpdir}/file-uploader-staging}")
+    private Path stagingDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(stagingDir);
+        log.info("Upload staging directory: {}", stagingDir.toAbsolutePath());
+    }
+
+    public StagedFile stage(MultipartFile file) {
+        Path target = stagingDir.resolve(UUID.randomUUID() + ".upload");
+        try {
+            file.transferTo(target);
+            return new StagedFile(target, file.getOriginalFilename(), file.getContentType(), file.getSize());
+        } catch (IOException e) {
+            deleteQuietly(target);
+            throw new FileUploadException("Failed to stage file", e);
+        }
+    }
+
+    public void discard(StagedFile stagedFile) {
+        deleteQuietly(stagedFile.path());
+    }
+
+    public Path getStagingDir() {
+        return stagingDir;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete staged file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.file_uploader_servise.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Dto.UploadStatsDto;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.example.file_uploader_servise.model.UploadStatsSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadStatsService {
+
+    private static final String JOB = "upload-stats";
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLeaseService jobLeaseService;
+
+    private volatile UploadStatsDto snapshot;
+
+    @Value("${app.stats.top-clients:20}")
+    private int topClients;
+
+    @Value("${app.stats.refresh-interval-millis:60000}")
+    private long refreshIntervalMillis;
+
+    public Optional<UploadStatsDto> current() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.refresh-interval-millis:60000}")
+    public void refresh() {
+        try {
+            boolean collected = jobLeaseService.runExclusively(JOB, Duration.ofMillis(refreshIntervalMillis),
+                    lease -> publish(collect()));
+            if (!collected) {
+                load();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh upload stats: {}", e.getMessage());
+        }
+    }
+
+    private void publish(UploadStatsSnapshot collected) {
+        mongoTemplate.save(collected);
+        snapshot = toDto(collected);
+    }
+
+    private void load() {
+        UploadStatsSnapshot shared = mongoTemplate.findById(UploadStatsSnapshot.CURRENT, UploadStatsSnapshot.class);
+        if (shared != null) {
+            snapshot = toDto(shared);
+        }
+    }
+
+    private UploadStatsSnapshot collect() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (UploadRequest.Status status : UploadRequest.Status.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+
+        Aggregation statusAggregation = Aggregation.newAggregation(
+                Aggregation.sort(Sort.Direction.ASC, "status"),
+                Aggregation.group("status").count().as("count")
+        );
+        mongoTemplate.aggregate(statusAggregation, UploadRequest.class, StatusCount.class)
+                .forEach(status -> byStatus.put(status.id(), status.count()));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("status")
+                        .in(UploadRequest.Status.PENDING, UploadRequest.Status.PROCESSING)),
+                Aggregation.group("clientId").count().as("count"),
+                Aggregation.sort(Sort.Direction.DESC, "count"),
+                Aggregation.limit(topClients)
+        );
+
+        Map<String, Long> activeByClient = new LinkedHashMap<>();
+        mongoTemplate.aggregate(aggregation, UploadRequest.class, ClientCount.class)
+                .forEach(client -> activeByClient.put(client.id(), client.count()));
+
+        return UploadStatsSnapshot.builder()
+                .id(UploadStatsSnapshot.CURRENT)
+                .uploads(mongoTemplate.estimatedCount(UploadRequest.class))
+                .files(mongoTemplate.estimatedCount(FileMetadata.class))
+                .uploadsByStatus(byStatus)
+                .activeUploadsByClient(activeByClient)
+                .refreshedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private UploadStatsDto toDto(UploadStatsSnapshot stats) {
+        return UploadStatsDto.builder()
+                .uploads(stats.getUploads())
+                .files(stats.getFiles())
+                .uploadsByStatus(stats.getUploadsByStatus())
+                .activeUploadsByClient(stats.getActiveUploadsByClient())
+                .refreshedAt(stats.getRefreshedAt())
+                .build();
+    }
+
+    private record StatusCount(@Id String id, long count) {
+    }
+
+    private record ClientCount(@Id String id, long count) {
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.file_uploader_servise.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Dto.BatchStatusRequestDto;
+import org.example.file_uploader_servise.Dto.BatchStatusResponseDto;
+import org.example.file_uploader_servise.Dto.StatusResponseDto;
+import org.example.file_uploader_servise.Repository.FileMetadataRepository;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.exception.FileUploadException;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadStatusService {
+
+    private final UploadRequestRepository uploadRequestRepository;
+    private final FileMetadataRepository fileMetadataRepository;
+
+    @Value("${app.upload.status.max-ids:500}")
+    private int maxIds;
+
+    @Value("${app.upload.status.max-results:1000}")
+    private int maxResults;
+
+    public BatchStatusResponseDto findStatuses(BatchStatusRequestDto query) {
+        List<String> ids = query.getUploadRequestIds();
+
+        if (ids != null && !ids.isEmpty()) {
+            return findByIds(query.getClientId(), ids);
+        }
+
+        if (query.getFrom() == null) {
+            throw new FileUploadException("Either uploadRequestIds or from is required");
+        }
+
+        return findByWindow(query);
+    }
+
+    private BatchStatusResponseDto findByIds(String clientId, List<String> ids) {
+        Set<String> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > maxIds) {
+            throw new FileUploadException("At most " + maxIds + " uploadRequestIds are allowed");
+        }
+
+        Map<String, UploadRequest> found = uploadRequestRepository.findByClientIdAndIdIn(clientId, requested).stream()
+                .collect(Collectors.toMap(UploadRequest::getId, Function.identity()));
+
+        List<UploadRequest> ordered = requested.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        List<String> notFound = requested.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+
+        return BatchStatusResponseDto.builder()
+                .clientId(clientId)
+                .results(describe(ordered))
+                .notFound(notFound)
+                .build();
+    }
+
+    private BatchStatusResponseDto findByWindow(BatchStatusRequestDto query) {
+        LocalDateTime to = query.getTo() != null ? query.getTo() : LocalDateTime.now();
+        if (!query.getFrom().isBefore(to)) {
+            throw new FileUploadException("from must be before to");
+        }
+
+        int limit = query.getLimit() != null ? Math.min(query.getLimit(), maxResults) : maxResults;
+
+        List<UploadRequest> requests = uploadRequestRepository.findByClientIdAndCreatedAtBetween(
+                query.getClientId(),
+                query.getFrom(),
+                to,
+                PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"))
+        );
+
+        return BatchStatusResponseDto.builder()
+                .clientId(query.getClientId())
+                .results(describe(requests))
+                .notFound(List.of())
+                .build();
+    }
+
+    private List<StatusResponseDto> describe(List<UploadRequest> requests) {
+        List<String> fileMetadataIds = requests.stream()
+                .map(UploadRequest::getFileMetadataId)
+                .filter(Objects::nonNull)
+                .toList();
+
+        Map<String, String> urls = new HashMap<>();
+        if (!fileMetadataIds.isEmpty()) {
+            for (FileMetadata metadata : fileMetadataRepository.findStorageUrlsByIdIn(fileMetadataIds)) {
+                if (metadata.getStorageInfo() != null) {
+                    urls.put(metadata.getId(), metadata.getStorageInfo().getUrl());
+                }
+            }
+        }
+
+        return requests.stream()
+                .map(request -> StatusResponseDto.fromUploadRequest(
+                        request,
+                        urls.get(request.getFileMetadataId()),
+                        request.getFileMetadataId()
+                ))
+                .toList();
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.file_uploader_servise.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadStatusWriteBehind {
+
+    private final UploadRequestRepository uploadRequestRepository;
+
+    private final ConcurrentHashMap<String, LocalDateTime> pendingProcessing = new ConcurrentHashMap<>();
+
+    @Value("${app.upload.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+
+    public void markProcessing(String uploadRequestId) {
+        pendingProcessing.put(uploadRequestId, LocalDateTime.now());
+    }
+
+    public void discard(String uploadRequestId) {
+        pendingProcessing.remove(uploadRequestId);
+    }
+
+    public int getPendingCount() {
+        return pendingProcessing.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.write-behind.flush-interval-millis:1000}")
+    public void flush() {
+        while (!pendingProcessing.isEmpty()) {
+            Map<String, LocalDateTime> batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                int updated = uploadRequestRepository.markProcessing(batch);
+                log.debug("Flushed processing transitions: batch={}, updated={}", batch.size(), updated);
+            } catch (DataAccessException e) {
+                log.warn("Failed to flush {} processing transitions: {}", batch.size(), e.getMessage());
+                batch.forEach(pendingProcessing::putIfAbsent);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Map<String, LocalDateTime> drain() {
+        Map<String, LocalDateTime> batch = new HashMap<>();
+        for (String uploadRequestId : pendingProcessing.keySet()) {
+            if (batch.size() >= maxBatchSize) {
+                break;
+            }
+            LocalDateTime startedAt = pendingProcessing.remove(uploadRequestId);
+            if (startedAt != null) {
+                batch.put(uploadRequestId, startedAt);
+            }
+        }
+        return batch;
+    }
+}
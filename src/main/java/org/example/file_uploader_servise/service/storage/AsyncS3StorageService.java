@@ -0,0 +1,762 @@
+package org.example.file_uploader_servise.service.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.FileRequestBodyConfiguration;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Qualifier(StorageService.BACKEND)
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3-async")
+public class AsyncS3StorageService implements StorageService {
+
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final S3AsyncClient s3Client;
+    private final S3Presigner presigner;
+
+    private final String endpoint;
+    private final String bucket;
+    private final long multipartThreshold;
+    private final int partSize;
+    private final int partConcurrency;
+
+    public AsyncS3StorageService(
+            @Value("${storage.s3.endpoint}") String endpoint,
+            @Value("${storage.s3.access-key}") String accessKey,
+            @Value("${storage.s3.secret-key}") String secretKey,
+            @Value("${storage.s3.region}") String region,
+            @Value("${storage.s3.public-endpoint:${storage.s3.endpoint}}") String publicEndpoint,
+            @Value("${storage.s3.bucket}") String bucket,
+            @Value("${storage.s3.multipart.threshold-bytes:16777216}") long multipartThreshold,
+            @Value("${storage.s3.multipart.part-size-bytes:8388608}") int partSize,
+            @Value("${storage.s3.multipart.concurrency:4}") int partConcurrency,
+            SdkAsyncHttpClient httpClient,
+            ClientOverrideConfiguration overrideConfiguration
+    ) {
+        this.endpoint = endpoint;
+        this.bucket = bucket;
+        this.partSize = Math.max(partSize, S3MultipartUploader.MIN_PART_SIZE);
+        this.multipartThreshold = Math.max(multipartThreshold, this.partSize);
+        this.partConcurrency = Math.max(partConcurrency, 1);
+
+        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
+
+        this.s3Client = S3AsyncClient.builder()
+                .endpointOverride(URI.create(endpoint))
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .region(Region.of(region))
+                .forcePathStyle(true)
+                .httpClient(httpClient)
+                .overrideConfiguration(overrideConfiguration)
+                .build();
+
+        this.presigner = S3Presigner.builder()
+                .endpointOverride(URI.create(publicEndpoint))
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .build())
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            await(s3Client.headBucket(HeadBucketRequest.builder().bucket(bucket).build()), "Failed to check bucket");
+        } catch (StorageException e) {
+            if (!(e.getCause() instanceof NoSuchBucketException)) {
+                throw e;
+            }
+            await(s3Client.createBucket(CreateBucketRequest.builder().bucket(bucket).build()),
+                    "Failed to create bucket");
+            log.info("Bucket '{}' created", bucket);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        presigner.close();
+        s3Client.close();
+    }
+
+    @Override
+    public FileMetadata.StorageInfo uploadFile(
+            String bucket,
+            String objectKey,
+            MultipartFile file,
+            Map<String, String> metadata
+    ) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return uploadStream(bucket, objectKey, inputStream, file.getSize(), file.getContentType(), metadata);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read file", e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<FileMetadata.StorageInfo> uploadFileAsync(
+            String bucket,
+            String objectKey,
+            Path file,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new StorageException("Failed to read file " + file, e));
+        }
+
+        if (size >= multipartThreshold) {
+            return uploadFileMultipartAsync(bucket, objectKey, file, size, contentType, metadata);
+        }
+
+        return s3Client.putObject(putRequest(bucket, objectKey, contentType, size, metadata), AsyncRequestBody.fromFile(file))
+                .handle((response, ex) -> {
+                    if (ex != null) {
+                        throw new StorageException("Failed to upload file", unwrap(ex));
+                    }
+                    return buildStorageInfo(bucket, objectKey, response.eTag(), response.versionId());
+                });
+    }
+
+    @Override
+    public FileMetadata.StorageInfo uploadStream(
+            String bucket,
+            String objectKey,
+            InputStream inputStream,
+            long size,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        if (size >= 0 && size < multipartThreshold) {
+            try {
+                byte[] content = inputStream.readNBytes((int) size);
+                PutObjectResponse response = await(
+                        s3Client.putObject(putRequest(bucket, objectKey, contentType, size, metadata),
+                                AsyncRequestBody.fromBytes(content)),
+                        "Failed to upload file"
+                );
+                return buildStorageInfo(bucket, objectKey, response.eTag(), response.versionId());
+            } catch (IOException e) {
+                throw new StorageException("Failed to read upload stream", e);
+            }
+        }
+
+        String multipartUploadId = initiateMultipartUpload(bucket, objectKey, contentType, metadata);
+        Semaphore inFlight = new Semaphore(partConcurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+
+        try {
+            int partNumber = 1;
+            while (failure.get() == null) {
+                inFlight.acquire();
+                byte[] buffer;
+                try {
+                    buffer = inputStream.readNBytes(partSize);
+                } catch (IOException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                if (buffer.length == 0 && partNumber > 1) {
+                    inFlight.release();
+                    break;
+                }
+
+                int number = partNumber++;
+                parts.add(s3Client.uploadPart(
+                                UploadPartRequest.builder()
+                                        .bucket(bucket)
+                                        .key(objectKey)
+                                        .uploadId(multipartUploadId)
+                                        .partNumber(number)
+                                        .contentLength((long) buffer.length)
+                                        .build(),
+                                AsyncRequestBody.fromBytes(buffer))
+                        .thenApply(response -> CompletedPart.builder()
+                                .partNumber(number)
+                                .eTag(response.eTag())
+                                .build())
+                        .whenComplete((part, ex) -> {
+                            inFlight.release();
+                            if (ex != null) {
+                                failure.compareAndSet(null, ex);
+                            }
+                        }));
+
+                if (buffer.length < partSize) {
+                    break;
+                }
+            }
+
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).join();
+
+            SortedMap<Integer, String> partETags = new TreeMap<>();
+            parts.forEach(part -> partETags.put(part.join().partNumber(), part.join().eTag()));
+
+            return completeMultipartUpload(bucket, objectKey, multipartUploadId, partETags);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abortAfter(parts, bucket, objectKey, multipartUploadId);
+            throw new StorageException("Multipart upload interrupted", e);
+        } catch (IOException | RuntimeException e) {
+            abortAfter(parts, bucket, objectKey, multipartUploadId);
+            throw e instanceof StorageException storageException
+                    ? storageException
+                    : new StorageException("Multipart upload failed", unwrap(e));
+        }
+    }
+
+    private CompletableFuture<FileMetadata.StorageInfo> uploadFileMultipartAsync(
+            String bucket,
+            String objectKey,
+            Path file,
+            long size,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        CreateMultipartUploadRequest.Builder requestBuilder = CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .contentType(contentType);
+
+        if (metadata != null && !metadata.isEmpty()) {
+            requestBuilder.metadata(metadata);
+        }
+
+        return s3Client.createMultipartUpload(requestBuilder.build())
+                .handle((created, ex) -> {
+                    if (ex != null) {
+                        throw new StorageException("Failed to initiate multipart upload", unwrap(ex));
+                    }
+                    return created.uploadId();
+                })
+                .thenCompose(multipartUploadId -> {
+                    CompletedPart[] completed = new CompletedPart[(int) ((size + partSize - 1) / partSize)];
+                    AtomicInteger nextPart = new AtomicInteger(1);
+
+                    List<CompletableFuture<Void>> lanes = new ArrayList<>();
+                    for (int i = 0; i < Math.min(partConcurrency, completed.length); i++) {
+                        lanes.add(uploadFileParts(bucket, objectKey, multipartUploadId, file, size, nextPart, completed));
+                    }
+
+                    return CompletableFuture.allOf(lanes.toArray(new CompletableFuture[0]))
+                            .thenCompose(done -> s3Client.completeMultipartUpload(
+                                    CompleteMultipartUploadRequest.builder()
+                                            .bucket(bucket)
+                                            .key(objectKey)
+                                            .uploadId(multipartUploadId)
+                                            .multipartUpload(CompletedMultipartUpload.builder()
+                                                    .parts(completed)
+                                                    .build())
+                                            .build()))
+                            .handle((response, ex) -> {
+                                if (ex == null) {
+                                    return CompletableFuture.completedFuture(
+                                            buildStorageInfo(bucket, objectKey, response.eTag(), response.versionId()));
+                                }
+                                return abortAsync(bucket, objectKey, multipartUploadId)
+                                        .<FileMetadata.StorageInfo>thenApply(aborted -> {
+                                            throw new StorageException("Multipart upload failed", unwrap(ex));
+                                        });
+                            })
+                            .thenCompose(result -> result);
+                });
+    }
+
+    private CompletableFuture<Void> uploadFileParts(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            Path file,
+            long size,
+            AtomicInteger nextPart,
+            CompletedPart[] completed
+    ) {
+        int partNumber = nextPart.getAndIncrement();
+        if (partNumber > completed.length) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long offset = (long) (partNumber - 1) * partSize;
+        long length = Math.min(partSize, size - offset);
+
+        return s3Client.uploadPart(
+                        UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(objectKey)
+                                .uploadId(multipartUploadId)
+                                .partNumber(partNumber)
+                                .contentLength(length)
+                                .build(),
+                        AsyncRequestBody.fromFile(FileRequestBodyConfiguration.builder()
+                                .path(file)
+                                .position(offset)
+                                .numBytesToRead(length)
+                                .build()))
+                .thenCompose(response -> {
+                    completed[partNumber - 1] = CompletedPart.builder()
+                            .partNumber(partNumber)
+                            .eTag(response.eTag())
+                            .build();
+                    return uploadFileParts(bucket, objectKey, multipartUploadId, file, size, nextPart, completed);
+                })
+                .whenComplete((done, ex) -> {
+                    if (ex != null) {
+                        nextPart.set(completed.length + 1);
+                    }
+                });
+    }
+
+    private CompletableFuture<Void> abortAsync(String bucket, String objectKey, String multipartUploadId) {
+        return s3Client.abortMultipartUpload(
+                        AbortMultipartUploadRequest.builder()
+                                .bucket(bucket)
+                                .key(objectKey)
+                                .uploadId(multipartUploadId)
+                                .build())
+                .handle((response, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to abort multipart upload: key={}, uploadId={}",
+                                objectKey, multipartUploadId, unwrap(ex));
+                    } else {
+                        log.warn("Multipart upload aborted: key={}, uploadId={}", objectKey, multipartUploadId);
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public Resource downloadFile(String bucket, String objectKey) {
+        ResponseInputStream<GetObjectResponse> stream = getObject(
+                GetObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(objectKey)
+                        .build()
+        );
+        long contentLength = stream.response().contentLength();
+
+        return new InputStreamResource(stream) {
+            @Override
+            public String getFilename() {
+                return objectKey.substring(objectKey.lastIndexOf('/') + 1);
+            }
+
+            @Override
+            public long contentLength() {
+                return contentLength;
+            }
+        };
+    }
+
+    @Override
+    public InputStream openStream(String bucket, String objectKey, long offset, long length) {
+        GetObjectRequest.Builder requestBuilder = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey);
+
+        if (offset > 0 || length >= 0) {
+            String end = length >= 0 ? String.valueOf(offset + length - 1) : "";
+            requestBuilder.range("bytes=" + offset + "-" + end);
+        }
+
+        return getObject(requestBuilder.build());
+    }
+
+    @Override
+    public Optional<Path> resolveLocalPath(String bucket, String objectKey) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void deleteFile(String bucket, String objectKey) {
+        await(s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(objectKey).build()),
+                "Failed to delete file");
+    }
+
+    @Override
+    public String initiateMultipartUpload(
+            String bucket,
+            String objectKey,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        CreateMultipartUploadRequest.Builder requestBuilder = CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .contentType(contentType);
+
+        if (metadata != null && !metadata.isEmpty()) {
+            requestBuilder.metadata(metadata);
+        }
+
+        return await(s3Client.createMultipartUpload(requestBuilder.build()), "Failed to initiate multipart upload")
+                .uploadId();
+    }
+
+    @Override
+    public String uploadPart(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            int partNumber,
+            InputStream inputStream,
+            long size
+    ) {
+        try {
+            byte[] content = inputStream.readNBytes((int) size);
+            return await(s3Client.uploadPart(
+                    UploadPartRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .uploadId(multipartUploadId)
+                            .partNumber(partNumber)
+                            .contentLength(size)
+                            .build(),
+                    AsyncRequestBody.fromBytes(content)
+            ), "Failed to upload part " + partNumber).eTag();
+
+        } catch (IOException e) {
+            throw new StorageException("Failed to read part " + partNumber, e);
+        }
+    }
+
+    @Override
+    public FileMetadata.StorageInfo completeMultipartUpload(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            SortedMap<Integer, String> partETags
+    ) {
+        List<CompletedPart> parts = partETags.entrySet().stream()
+                .map(part -> CompletedPart.builder()
+                        .partNumber(part.getKey())
+                        .eTag(part.getValue())
+                        .build())
+                .toList();
+
+        CompleteMultipartUploadResponse response = await(s3Client.completeMultipartUpload(
+                CompleteMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(objectKey)
+                        .uploadId(multipartUploadId)
+                        .multipartUpload(CompletedMultipartUpload.builder()
+                                .parts(parts)
+                                .build())
+                        .build()
+        ), "Failed to complete multipart upload");
+
+        return buildStorageInfo(bucket, objectKey, response.eTag(), response.versionId());
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String objectKey, String multipartUploadId) {
+        try {
+            await(s3Client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .uploadId(multipartUploadId)
+                            .build()
+            ), "Failed to abort multipart upload");
+        } catch (StorageException e) {
+            if (!(e.getCause() instanceof NoSuchUploadException)) {
+                throw e;
+            }
+            log.debug("Multipart upload already gone: key={}, uploadId={}", objectKey, multipartUploadId);
+        }
+    }
+
+    @Override
+    public SortedMap<Integer, String> listUploadedParts(String bucket, String objectKey, String multipartUploadId) {
+        SortedMap<Integer, String> parts = new TreeMap<>();
+        Integer marker = null;
+
+        do {
+            ListPartsResponse response = await(s3Client.listParts(
+                    ListPartsRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .uploadId(multipartUploadId)
+                            .partNumberMarker(marker)
+                            .build()
+            ), "Failed to list uploaded parts");
+
+            response.parts().forEach(part -> parts.put(part.partNumber(), part.eTag()));
+            marker = Boolean.TRUE.equals(response.isTruncated()) ? response.nextPartNumberMarker() : null;
+        } while (marker != null);
+
+        return parts;
+    }
+
+    @Override
+    public Optional<ObjectStat> statObject(String bucket, String objectKey) {
+        try {
+            HeadObjectResponse response = await(
+                    s3Client.headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey).build()),
+                    "Failed to read object metadata"
+            );
+            return Optional.of(new ObjectStat(
+                    buildStorageInfo(bucket, objectKey, response.eTag(), response.versionId()),
+                    response.contentLength(),
+                    response.contentType()
+            ));
+
+        } catch (StorageException e) {
+            if (e.getCause() instanceof S3Exception s3Exception && s3Exception.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void checkAvailability(String bucket) {
+        await(s3Client.headBucket(
+                HeadBucketRequest.builder()
+                        .bucket(bucket)
+                        .build()
+        ), "Bucket is not available: " + bucket);
+    }
+
+    @Override
+    public Stream<StoredObject> listObjects(String bucket) {
+        return Stream.iterate(
+                        listObjectsPage(bucket, null),
+                        Objects::nonNull,
+                        page -> page.isTruncated() ? listObjectsPage(bucket, page.nextContinuationToken()) : null
+                )
+                .flatMap(page -> page.contents().stream())
+                .map(object -> new StoredObject(object.key(), object.size(), object.lastModified()));
+    }
+
+    @Override
+    public int deleteObjects(String bucket, List<StoredObject> objects) {
+        int deleted = 0;
+
+        for (int from = 0; from < objects.size(); from += DELETE_BATCH_SIZE) {
+            List<ObjectIdentifier> identifiers = objects.subList(from, Math.min(from + DELETE_BATCH_SIZE, objects.size()))
+                    .stream()
+                    .map(object -> ObjectIdentifier.builder().key(object.key()).build())
+                    .toList();
+
+            DeleteObjectsResponse response = await(s3Client.deleteObjects(
+                    DeleteObjectsRequest.builder()
+                            .bucket(bucket)
+                            .delete(Delete.builder().objects(identifiers).quiet(true).build())
+                            .build()
+            ), "Failed to delete objects");
+
+            response.errors().forEach(error ->
+                    log.warn("Failed to delete object {}: {} {}", error.key(), error.code(), error.message()));
+            deleted += identifiers.size() - response.errors().size();
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public Stream<PendingMultipartUpload> listMultipartUploads(String bucket) {
+        return Stream.iterate(
+                        listMultipartUploadsPage(bucket, null, null),
+                        Objects::nonNull,
+                        page -> page.isTruncated()
+                                ? listMultipartUploadsPage(bucket, page.nextKeyMarker(), page.nextUploadIdMarker())
+                                : null
+                )
+                .flatMap(page -> page.uploads().stream())
+                .map(upload -> new PendingMultipartUpload(upload.key(), upload.uploadId(), upload.initiated()));
+    }
+
+    @Override
+    public URL presignUpload(String bucket, String objectKey, String contentType, long size, Duration ttl) {
+        return presigner.presignPutObject(
+                PutObjectPresignRequest.builder()
+                        .signatureDuration(ttl)
+                        .putObjectRequest(putRequest(bucket, objectKey, contentType, size, null))
+                        .build()
+        ).url();
+    }
+
+    @Override
+    public URL presignUploadPart(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            int partNumber,
+            long size,
+            Duration ttl
+    ) {
+        return presigner.presignUploadPart(
+                UploadPartPresignRequest.builder()
+                        .signatureDuration(ttl)
+                        .uploadPartRequest(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(objectKey)
+                                .uploadId(multipartUploadId)
+                                .partNumber(partNumber)
+                                .contentLength(size)
+                                .build())
+                        .build()
+        ).url();
+    }
+
+    @Override
+    public URL presignDownload(String bucket, String objectKey, String filename, Duration ttl) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey);
+
+        if (filename != null) {
+            request.responseContentDisposition(ContentDisposition.attachment()
+                    .filename(filename, StandardCharsets.UTF_8)
+                    .build()
+                    .toString());
+        }
+
+        return presigner.presignGetObject(
+                GetObjectPresignRequest.builder()
+                        .signatureDuration(ttl)
+                        .getObjectRequest(request.build())
+                        .build()
+        ).url();
+    }
+
+    private PutObjectRequest putRequest(
+            String bucket,
+            String objectKey,
+            String contentType,
+            long size,
+            Map<String, String> metadata
+    ) {
+        PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .contentType(contentType)
+                .contentLength(size);
+
+        if (metadata != null && !metadata.isEmpty()) {
+            requestBuilder.metadata(metadata);
+        }
+
+        return requestBuilder.build();
+    }
+
+    private ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+        return await(s3Client.getObject(request, AsyncResponseTransformer.toBlockingInputStream()),
+                "Failed to download file " + request.key());
+    }
+
+    private void abortAfter(
+            List<CompletableFuture<CompletedPart>> parts,
+            String bucket,
+            String objectKey,
+            String multipartUploadId
+    ) {
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                .handle((result, ex) -> null)
+                .join();
+        try {
+            abortMultipartUpload(bucket, objectKey, multipartUploadId);
+            log.warn("Multipart upload aborted: key={}, uploadId={}", objectKey, multipartUploadId);
+        } catch (StorageException e) {
+            log.error("Failed to abort multipart upload: key={}, uploadId={}", objectKey, multipartUploadId, e);
+        }
+    }
+
+    private ListObjectsV2Response listObjectsPage(String bucket, String continuationToken) {
+        return await(s3Client.listObjectsV2(
+                ListObjectsV2Request.builder()
+                        .bucket(bucket)
+                        .maxKeys(LIST_PAGE_SIZE)
+                        .continuationToken(continuationToken)
+                        .build()
+        ), "Failed to list objects");
+    }
+
+    private ListMultipartUploadsResponse listMultipartUploadsPage(String bucket, String keyMarker, String uploadIdMarker) {
+        return await(s3Client.listMultipartUploads(
+                ListMultipartUploadsRequest.builder()
+                        .bucket(bucket)
+                        .keyMarker(keyMarker)
+                        .uploadIdMarker(uploadIdMarker)
+                        .build()
+        ), "Failed to list multipart uploads");
+    }
+
+    private <T> T await(CompletableFuture<T> future, String message) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new StorageException(message, unwrap(e));
+        }
+    }
+
+    private Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private FileMetadata.StorageInfo buildStorageInfo(String bucket, String objectKey, String eTag, String versionId) {
+        return FileMetadata.StorageInfo.builder()
+                .storageType("minio")
+                .bucket(bucket)
+                .key(objectKey)
+                .url(endpoint + "/" + bucket + "/" + objectKey)
+                .eTag(eTag)
+                .versionId(versionId)
+                .build();
+    }
+}
@@ -0,0 +1,604 @@
+package org.example.file_uploader_servise.service.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(name = "storage.cache.enabled", havingValue = "true")
+public class CachingStorageService implements StorageService {
+
+    private static final String CACHE_SUBDIR = "objects";
+
+    private final StorageService backend;
+    private final Path cacheDir;
+    private final long maxSizeBytes;
+    private final long maxObjectSizeBytes;
+    private final boolean cacheOnUpload;
+    private final Executor uploadExecutor;
+
+    private final LinkedHashMap<String, CachedObject> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CachingStorageService(
+            @Qualifier(StorageService.BACKEND) StorageService backend,
+            @Value("${storage.cache.dir}") String cacheDir,
+            @Value("${storage.cache.max-size-bytes:10737418240}") long maxSizeBytes,
+            @Value("${storage.cache.max-object-size-bytes:268435456}") long maxObjectSizeBytes,
+            @Value("${storage.cache.cache-on-upload:true}") boolean cacheOnUpload,
+            @Qualifier("uploadExecutor") Executor uploadExecutor,
+            MeterRegistry meterRegistry
+    ) {
+        this.backend = backend;
+        this.cacheDir = Paths.get(cacheDir).toAbsolutePath().normalize().resolve(CACHE_SUBDIR);
+        this.maxSizeBytes = maxSizeBytes;
+        this.maxObjectSizeBytes = Math.min(maxObjectSizeBytes, maxSizeBytes);
+        this.cacheOnUpload = cacheOnUpload;
+        this.uploadExecutor = uploadExecutor;
+
+        this.hits = meterRegistry.counter("storage.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("storage.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("storage.cache.evictions");
+        Gauge.builder("storage.cache.size", this, CachingStorageService::getCachedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        try {
+            FileSystemUtils.deleteRecursively(this.cacheDir);
+            Files.createDirectories(this.cacheDir);
+        } catch (IOException e) {
+            throw new StorageException("Failed to prepare cache directory " + this.cacheDir, e);
+        }
+
+        log.info("Storage cache enabled: dir={}, maxSize={} bytes, maxObjectSize={} bytes",
+                this.cacheDir, maxSizeBytes, this.maxObjectSizeBytes);
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    @Override
+    public FileMetadata.StorageInfo uploadFile(
+            String bucket,
+            String objectKey,
+            MultipartFile file,
+            Map<String, String> metadata
+    ) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return uploadStream(bucket, objectKey, inputStream, file.getSize(), file.getContentType(), metadata);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read file", e);
+        }
+    }
+
+    @Override
+    public FileMetadata.StorageInfo uploadStream(
+            String bucket,
+            String objectKey,
+            InputStream inputStream,
+            long size,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        invalidate(bucket, objectKey);
+
+        if (!cacheOnUpload || size > maxObjectSizeBytes) {
+            return backend.uploadStream(bucket, objectKey, inputStream, size, contentType, metadata);
+        }
+
+        CacheFill fill = startFill(bucket, objectKey, inputStream);
+        if (fill == null) {
+            return backend.uploadStream(bucket, objectKey, inputStream, size, contentType, metadata);
+        }
+
+        try {
+            FileMetadata.StorageInfo storageInfo =
+                    backend.uploadStream(bucket, objectKey, fill, size, contentType, metadata);
+            if (size < 0 || fill.getCopied() == size) {
+                fill.commit();
+            }
+            return storageInfo;
+        } finally {
+            fill.discard();
+        }
+    }
+
+    @Override
+    public CompletableFuture<FileMetadata.StorageInfo> uploadFileAsync(
+            String bucket,
+            String objectKey,
+            Path file,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        invalidate(bucket, objectKey);
+
+        return backend.uploadFileAsync(bucket, objectKey, file, contentType, metadata)
+                .thenCompose(storageInfo -> cacheOnUpload
+                        ? cacheCopyAsync(bucket, objectKey, file).thenApply(copied -> storageInfo)
+                        : CompletableFuture.completedFuture(storageInfo));
+    }
+
+    @Override
+    public Resource downloadFile(String bucket, String objectKey) {
+        Optional<Path> cached = lookup(bucket, objectKey);
+        if (cached.isPresent()) {
+            return new FileSystemResource(cached.get());
+        }
+        return backend.downloadFile(bucket, objectKey);
+    }
+
+    @Override
+    public InputStream openStream(String bucket, String objectKey, long offset, long length) {
+        Optional<Path> cached = lookup(bucket, objectKey);
+        if (cached.isPresent()) {
+            try {
+                return openCached(cached.get(), offset, length);
+            } catch (IOException e) {
+                log.warn("Cached copy of {} is unreadable, falling back to backend: {}", objectKey, e.getMessage());
+                invalidate(bucket, objectKey);
+            }
+        }
+
+        if (offset == 0) {
+            Optional<ObjectStat> stat = backend.statObject(bucket, objectKey);
+            if (stat.isPresent() && stat.get().size() <= maxObjectSizeBytes
+                    && (length < 0 || length == stat.get().size())) {
+                InputStream source = backend.openStream(bucket, objectKey, 0, -1);
+                CacheFill fill = startFill(bucket, objectKey, source);
+                if (fill != null) {
+                    return new CommitOnEofInputStream(fill, stat.get().size());
+                }
+                return source;
+            }
+        }
+
+        return backend.openStream(bucket, objectKey, offset, length);
+    }
+
+    @Override
+    public Optional<Path> resolveLocalPath(String bucket, String objectKey) {
+        return backend.resolveLocalPath(bucket, objectKey);
+    }
+
+    @Override
+    public void deleteFile(String bucket, String objectKey) {
+        invalidate(bucket, objectKey);
+        backend.deleteFile(bucket, objectKey);
+    }
+
+    @Override
+    public String initiateMultipartUpload(
+            String bucket,
+            String objectKey,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        return backend.initiateMultipartUpload(bucket, objectKey, contentType, metadata);
+    }
+
+    @Override
+    public String uploadPart(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            int partNumber,
+            InputStream inputStream,
+            long size
+    ) {
+        return backend.uploadPart(bucket, objectKey, multipartUploadId, partNumber, inputStream, size);
+    }
+
+    @Override
+    public FileMetadata.StorageInfo completeMultipartUpload(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            SortedMap<Integer, String> partETags
+    ) {
+        invalidate(bucket, objectKey);
+        return backend.completeMultipartUpload(bucket, objectKey, multipartUploadId, partETags);
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String objectKey, String multipartUploadId) {
+        backend.abortMultipartUpload(bucket, objectKey, multipartUploadId);
+    }
+
+    @Override
+    public SortedMap<Integer, String> listUploadedParts(String bucket, String objectKey, String multipartUploadId) {
+        return backend.listUploadedParts(bucket, objectKey, multipartUploadId);
+    }
+
+    @Override
+    public Optional<ObjectStat> statObject(String bucket, String objectKey) {
+        return backend.statObject(bucket, objectKey);
+    }
+
+    @Override
+    public void checkAvailability(String bucket) {
+        backend.checkAvailability(bucket);
+    }
+
+    @Override
+    public Stream<StoredObject> listObjects(String bucket) {
+        return backend.listObjects(bucket);
+    }
+
+    @Override
+    public int deleteObjects(String bucket, List<StoredObject> objects) {
+        invalidateListed(bucket, objects.stream().map(StoredObject::key).collect(Collectors.toSet()));
+        return backend.deleteObjects(bucket, objects);
+    }
+
+    @Override
+    public Stream<PendingMultipartUpload> listMultipartUploads(String bucket) {
+        return backend.listMultipartUploads(bucket);
+    }
+
+    @Override
+    public String listingKey(String objectKey) {
+        return backend.listingKey(objectKey);
+    }
+
+    @Override
+    public URL presignUpload(String bucket, String objectKey, String contentType, long size, Duration ttl) {
+        return backend.presignUpload(bucket, objectKey, contentType, size, ttl);
+    }
+
+    @Override
+    public URL presignUploadPart(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            int partNumber,
+            long size,
+            Duration ttl
+    ) {
+        return backend.presignUploadPart(bucket, objectKey, multipartUploadId, partNumber, size, ttl);
+    }
+
+    @Override
+    public URL presignDownload(String bucket, String objectKey, String filename, Duration ttl) {
+        return backend.presignDownload(bucket, objectKey, filename, ttl);
+    }
+
+    private Optional<Path> lookup(String bucket, String objectKey) {
+        CachedObject cached;
+        synchronized (this) {
+            cached = index.get(cacheKey(bucket, objectKey));
+        }
+
+        if (cached != null && Files.isRegularFile(cached.path())) {
+            hits.increment();
+            return Optional.of(cached.path());
+        }
+
+        if (cached != null) {
+            invalidate(bucket, objectKey);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    private InputStream openCached(Path path, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            InputStream stream = Channels.newInputStream(channel);
+            return length >= 0 ? new RangeInputStream(stream, length) : stream;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private CacheFill startFill(String bucket, String objectKey, InputStream source) {
+        Path target = cachePath(bucket, objectKey);
+        Path temp = target.resolveSibling(".fill-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(target.getParent());
+            return new CacheFill(source, Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW),
+                    bucket, objectKey, temp, target);
+        } catch (IOException e) {
+            log.warn("Cannot cache {}: {}", objectKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private CompletableFuture<Void> cacheCopyAsync(String bucket, String objectKey, Path file) {
+        try {
+            return CompletableFuture.runAsync(() -> cacheCopy(bucket, objectKey, file), uploadExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Skipping cache fill for {}: upload executor is saturated", objectKey);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private void cacheCopy(String bucket, String objectKey, Path file) {
+        Path target = cachePath(bucket, objectKey);
+        Path temp = target.resolveSibling(".fill-" + UUID.randomUUID());
+        try {
+            long size = Files.size(file);
+            if (size > maxObjectSizeBytes) {
+                return;
+            }
+            Files.createDirectories(target.getParent());
+            Files.copy(file, temp);
+            admit(bucket, objectKey, temp, target, size);
+        } catch (IOException e) {
+            log.warn("Failed to cache {}: {}", objectKey, e.getMessage());
+            deleteQuietly(temp);
+        }
+    }
+
+    private void admit(String bucket, String objectKey, Path temp, Path target, long size) throws IOException {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        synchronized (this) {
+            CachedObject previous = index.put(cacheKey(bucket, objectKey), new CachedObject(target, size, backend.listingKey(objectKey)));
+            if (previous != null) {
+                cachedBytes -= previous.size();
+            }
+            cachedBytes += size;
+            evictIfNeeded();
+        }
+    }
+
+    private synchronized void evictIfNeeded() {
+        Iterator<Map.Entry<String, CachedObject>> eldest = index.entrySet().iterator();
+        while (cachedBytes > maxSizeBytes && eldest.hasNext()) {
+            CachedObject evicted = eldest.next().getValue();
+            eldest.remove();
+            cachedBytes -= evicted.size();
+            evictions.increment();
+            deleteQuietly(evicted.path());
+        }
+    }
+
+    private void invalidate(String bucket, String objectKey) {
+        CachedObject removed;
+        synchronized (this) {
+            removed = index.remove(cacheKey(bucket, objectKey));
+            if (removed != null) {
+                cachedBytes -= removed.size();
+            }
+        }
+        if (removed != null) {
+            deleteQuietly(removed.path());
+        }
+    }
+
+    private void invalidateListed(String bucket, Set<String> listingKeys) {
+        List<CachedObject> removed = new ArrayList<>();
+        String prefix = cacheKey(bucket, "");
+        synchronized (this) {
+            Iterator<Map.Entry<String, CachedObject>> entries = index.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, CachedObject> entry = entries.next();
+                if (entry.getKey().startsWith(prefix) && listingKeys.contains(entry.getValue().listingKey())) {
+                    entries.remove();
+                    cachedBytes -= entry.getValue().size();
+                    removed.add(entry.getValue());
+                }
+            }
+        }
+        removed.forEach(cached -> deleteQuietly(cached.path()));
+    }
+
+    private String cacheKey(String bucket, String objectKey) {
+        return bucket + "/" + objectKey;
+    }
+
+    private Path cachePath(String bucket, String objectKey) {
+        String hash = DigestUtils.sha256Hex(cacheKey(bucket, objectKey));
+        return cacheDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private record CachedObject(Path path, long size, String listingKey) {
+    }
+
+    private class CacheFill extends FilterInputStream {
+
+        private final OutputStream copy;
+        private final String bucket;
+        private final String objectKey;
+        private final Path temp;
+        private final Path target;
+        private long copied;
+        private boolean abandoned;
+        private boolean done;
+
+        CacheFill(InputStream in, OutputStream copy, String bucket, String objectKey, Path temp, Path target) {
+            super(in);
+            this.copy = copy;
+            this.bucket = bucket;
+            this.objectKey = objectKey;
+            this.temp = temp;
+            this.target = target;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                write(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            abandoned = true;
+            return 0;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        long getCopied() {
+            return copied;
+        }
+
+        void commit() {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                copy.close();
+                if (abandoned) {
+                    deleteQuietly(temp);
+                    return;
+                }
+                admit(bucket, objectKey, temp, target, copied);
+            } catch (IOException e) {
+                log.warn("Failed to cache {}: {}", objectKey, e.getMessage());
+                deleteQuietly(temp);
+            }
+        }
+
+        void discard() {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                copy.close();
+            } catch (IOException e) {
+                log.debug("Failed to close cache file {}: {}", temp, e.getMessage());
+            }
+            deleteQuietly(temp);
+        }
+
+        private void write(byte[] b, int off, int len) {
+            if (abandoned) {
+                return;
+            }
+            if (copied + len > maxObjectSizeBytes) {
+                abandoned = true;
+                return;
+            }
+            try {
+                copy.write(b, off, len);
+                copied += len;
+            } catch (IOException e) {
+                log.warn("Cache write failed for {}: {}", objectKey, e.getMessage());
+                abandoned = true;
+            }
+        }
+    }
+
+    private static class CommitOnEofInputStream extends FilterInputStream {
+
+        private final CacheFill fill;
+        private final long expectedSize;
+
+        CommitOnEofInputStream(CacheFill fill, long expectedSize) {
+            super(fill);
+            this.fill = fill;
+            this.expectedSize = expectedSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                finish();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read < 0) {
+                finish();
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                fill.discard();
+            }
+        }
+
+        private void finish() {
+            if (fill.getCopied() == expectedSize) {
+                fill.commit();
+            } else {
+                fill.discard();
+            }
+        }
+    }
+}
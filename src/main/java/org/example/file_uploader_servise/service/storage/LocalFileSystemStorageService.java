@@ -0,0 +1,463 @@
+package org.example.file_uploader_servise.service.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Qualifier(StorageService.BACKEND)
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class LocalFileSystemStorageService implements StorageService {
+
+    private static final long TRANSFER_CHUNK = 64L * 1024 * 1024;
+    private static final String MULTIPART_DIR = ".multipart";
+    private static final String PART_PREFIX = "part-";
+
+    private final Path root;
+    private final String bucket;
+    private final boolean fsync;
+
+    public LocalFileSystemStorageService(
+            @Value("${storage.local.root}") String root,
+            @Value("${storage.s3.bucket:uploads}") String bucket,
+            @Value("${storage.local.fsync:false}") boolean fsync
+    ) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.bucket = bucket;
+        this.fsync = fsync;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            Files.createDirectories(bucketDir(bucket).resolve(MULTIPART_DIR));
+            log.info("Local storage root: {}", root);
+        } catch (IOException e) {
+            throw new StorageException("Failed to create storage directory " + root, e);
+        }
+    }
+
+    @Override
+    public FileMetadata.StorageInfo uploadFile(
+            String bucket,
+            String objectKey,
+            MultipartFile file,
+            Map<String, String> metadata
+    ) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return uploadStream(bucket, objectKey, inputStream, file.getSize(), file.getContentType(), metadata);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read file", e);
+        }
+    }
+
+    @Override
+    public FileMetadata.StorageInfo uploadStream(
+            String bucket,
+            String objectKey,
+            InputStream inputStream,
+            long size,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        Path target = objectPath(bucket, objectKey);
+
+        try {
+            Files.createDirectories(target.getParent());
+            writeAtomically(inputStream, size, target);
+            return buildStorageInfo(bucket, objectKey, target);
+
+        } catch (IOException e) {
+            throw new StorageException("Failed to store file " + objectKey, e);
+        }
+    }
+
+    @Override
+    public Resource downloadFile(String bucket, String objectKey) {
+        Path path = objectPath(bucket, objectKey);
+        if (!Files.isRegularFile(path)) {
+            throw new StorageException("Object not found: " + objectKey, null);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public InputStream openStream(String bucket, String objectKey, long offset, long length) {
+        Path path = objectPath(bucket, objectKey);
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            channel.position(offset);
+            InputStream stream = Channels.newInputStream(channel);
+            return length >= 0 ? new RangeInputStream(stream, length) : stream;
+
+        } catch (IOException e) {
+            throw new StorageException("Failed to open file " + objectKey, e);
+        }
+    }
+
+    @Override
+    public Optional<Path> resolveLocalPath(String bucket, String objectKey) {
+        Path path = objectPath(bucket, objectKey);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public void deleteFile(String bucket, String objectKey) {
+        try {
+            Files.deleteIfExists(objectPath(bucket, objectKey));
+        } catch (IOException e) {
+            throw new StorageException("Failed to delete file", e);
+        }
+    }
+
+    @Override
+    public String initiateMultipartUpload(
+            String bucket,
+            String objectKey,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        String multipartUploadId = UUID.randomUUID().toString();
+        try {
+            Files.createDirectories(multipartDir(bucket, multipartUploadId));
+            return multipartUploadId;
+        } catch (IOException e) {
+            throw new StorageException("Failed to initiate multipart upload", e);
+        }
+    }
+
+    @Override
+    public String uploadPart(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            int partNumber,
+            InputStream inputStream,
+            long size
+    ) {
+        Path uploadDir = multipartDir(bucket, multipartUploadId);
+        if (!Files.isDirectory(uploadDir)) {
+            throw new StorageException("Multipart upload not found: " + multipartUploadId, null);
+        }
+
+        Path part = uploadDir.resolve(PART_PREFIX + partNumber);
+        try {
+            writeAtomically(inputStream, size, part);
+            return eTag(Files.readAttributes(part, BasicFileAttributes.class));
+        } catch (IOException e) {
+            throw new StorageException("Failed to upload part " + partNumber, e);
+        }
+    }
+
+    @Override
+    public FileMetadata.StorageInfo completeMultipartUpload(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            SortedMap<Integer, String> partETags
+    ) {
+        Path uploadDir = multipartDir(bucket, multipartUploadId);
+        SortedMap<Integer, String> uploaded = listUploadedParts(bucket, objectKey, multipartUploadId);
+
+        partETags.forEach((partNumber, eTag) -> {
+            if (!eTag.equals(uploaded.get(partNumber))) {
+                throw new StorageException("Part " + partNumber + " is missing or was replaced", null);
+            }
+        });
+
+        Path target = objectPath(bucket, objectKey);
+        Path temp = target.resolveSibling(".tmp-" + UUID.randomUUID());
+
+        try {
+            Files.createDirectories(target.getParent());
+
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                for (Integer partNumber : partETags.keySet()) {
+                    try (FileChannel in = FileChannel.open(uploadDir.resolve(PART_PREFIX + partNumber),
+                            StandardOpenOption.READ)) {
+                        long position = 0;
+                        long partSize = in.size();
+                        while (position < partSize) {
+                            position += in.transferTo(position, partSize - position, out);
+                        }
+                    }
+                }
+                if (fsync) {
+                    out.force(true);
+                }
+            }
+
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            deleteDirectory(uploadDir);
+            return buildStorageInfo(bucket, objectKey, target);
+
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new StorageException("Failed to complete multipart upload", e);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String objectKey, String multipartUploadId) {
+        try {
+            deleteDirectory(multipartDir(bucket, multipartUploadId));
+        } catch (IOException e) {
+            throw new StorageException("Failed to abort multipart upload", e);
+        }
+    }
+
+    @Override
+    public SortedMap<Integer, String> listUploadedParts(String bucket, String objectKey, String multipartUploadId) {
+        SortedMap<Integer, String> parts = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(
+                multipartDir(bucket, multipartUploadId), PART_PREFIX + "*")) {
+            for (Path part : files) {
+                int partNumber = Integer.parseInt(part.getFileName().toString().substring(PART_PREFIX.length()));
+                parts.put(partNumber, eTag(Files.readAttributes(part, BasicFileAttributes.class)));
+            }
+            return parts;
+
+        } catch (NoSuchFileException e) {
+            throw new StorageException("Multipart upload not found: " + multipartUploadId, e);
+        } catch (IOException e) {
+            throw new StorageException("Failed to list uploaded parts", e);
+        }
+    }
+
+    @Override
+    public Optional<ObjectStat> statObject(String bucket, String objectKey) {
+        Path path = objectPath(bucket, objectKey);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new ObjectStat(buildStorageInfo(bucket, objectKey, path), Files.size(path), null));
+        } catch (IOException e) {
+            throw new StorageException("Failed to read object metadata", e);
+        }
+    }
+
+    @Override
+    public void checkAvailability(String bucket) {
+        Path dir = bucketDir(bucket);
+        if (!Files.isDirectory(dir) || !Files.isWritable(dir)) {
+            throw new StorageException("Bucket directory is not writable: " + dir, null);
+        }
+    }
+
+    @Override
+    public Stream<StoredObject> listObjects(String bucket) {
+        Path dir = bucketDir(bucket);
+        Path multipart = dir.resolve(MULTIPART_DIR);
+        try {
+            return Files.walk(dir)
+                    .filter(path -> !path.startsWith(multipart))
+                    .filter(Files::isRegularFile)
+                    .flatMap(path -> storedObject(dir, path).stream());
+        } catch (IOException e) {
+            throw new StorageException("Failed to list objects", e);
+        }
+    }
+
+    @Override
+    public int deleteObjects(String bucket, List<StoredObject> objects) {
+        Path dir = bucketDir(bucket);
+        Path multipart = dir.resolve(MULTIPART_DIR);
+        int deleted = 0;
+
+        for (StoredObject object : objects) {
+            Path path = dir.resolve(object.key()).normalize();
+            if (!path.startsWith(dir) || path.startsWith(multipart)) {
+                log.warn("Refusing to delete {} outside of bucket directory", object.key());
+                continue;
+            }
+            try {
+                if (Files.deleteIfExists(path)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.warn("Failed to delete object {}: {}", object.key(), e.getMessage());
+            }
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public Stream<PendingMultipartUpload> listMultipartUploads(String bucket) {
+        try {
+            return Files.list(bucketDir(bucket).resolve(MULTIPART_DIR))
+                    .filter(Files::isDirectory)
+                    .flatMap(dir -> pendingMultipartUpload(dir).stream());
+        } catch (IOException e) {
+            throw new StorageException("Failed to list multipart uploads", e);
+        }
+    }
+
+    @Override
+    public String listingKey(String objectKey) {
+        String hash = DigestUtils.sha256Hex(objectKey);
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    @Override
+    public URL presignUpload(String bucket, String objectKey, String contentType, long size, Duration ttl) {
+        throw new StorageException("Presigned URLs are not supported by local storage", null);
+    }
+
+    @Override
+    public URL presignUploadPart(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            int partNumber,
+            long size,
+            Duration ttl
+    ) {
+        throw new StorageException("Presigned URLs are not supported by local storage", null);
+    }
+
+    @Override
+    public URL presignDownload(String bucket, String objectKey, String filename, Duration ttl) {
+        throw new StorageException("Presigned URLs are not supported by local storage", null);
+    }
+
+    private void writeAtomically(InputStream inputStream, long size, Path target) throws IOException {
+        Path temp = target.resolveSibling(".tmp-" + UUID.randomUUID());
+
+        try {
+            long written = 0;
+            try (ReadableByteChannel source = Channels.newChannel(inputStream);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+
+                long transferred;
+                while ((transferred = out.transferFrom(source, written, TRANSFER_CHUNK)) > 0) {
+                    written += transferred;
+                }
+
+                if (fsync) {
+                    out.force(true);
+                }
+            }
+
+            if (size >= 0 && written != size) {
+                throw new IOException("Expected " + size + " bytes, received " + written);
+            }
+
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    private Path bucketDir(String bucket) {
+        Path dir = root.resolve(bucket).normalize();
+        if (!dir.getParent().equals(root)) {
+            throw new StorageException("Invalid bucket name: " + bucket, null);
+        }
+        return dir;
+    }
+
+    private Path objectPath(String bucket, String objectKey) {
+        String hash = DigestUtils.sha256Hex(objectKey);
+        return bucketDir(bucket)
+                .resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash);
+    }
+
+    private Optional<StoredObject> storedObject(Path dir, Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            String key = dir.relativize(path).toString().replace(File.separatorChar, '/');
+            return Optional.of(new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toInstant()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<PendingMultipartUpload> pendingMultipartUpload(Path dir) {
+        try {
+            return Optional.of(new PendingMultipartUpload(
+                    null,
+                    dir.getFileName().toString(),
+                    Files.getLastModifiedTime(dir).toInstant()
+            ));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Path multipartDir(String bucket, String multipartUploadId) {
+        return bucketDir(bucket).resolve(MULTIPART_DIR).resolve(UUID.fromString(multipartUploadId).toString());
+    }
+
+    private FileMetadata.StorageInfo buildStorageInfo(String bucket, String objectKey, Path path) throws IOException {
+        return FileMetadata.StorageInfo.builder()
+                .storageType("local")
+                .bucket(bucket)
+                .key(objectKey)
+                .url(path.toUri().toString())
+                .eTag(eTag(Files.readAttributes(path, BasicFileAttributes.class)))
+                .build();
+    }
+
+    private String eTag(BasicFileAttributes attributes) {
+        return Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis());
+    }
+
+    private void deleteDirectory(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -1,45 +1,87 @@
 package org.example.file_uploader_servise.service.storage;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.example.file_uploader_servise.model.FileMetadata;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Qualifier(StorageService.BACKEND)
 @ConditionalOnProperty(name = "storage.type", havingValue = "s3")
 public class MinioStorageService implements StorageService {
 
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final int DELETE_BATCH_SIZE = 1000;
+
     private final S3Client s3Client;
+    private final S3Presigner presigner;
+    private final S3MultipartUploader multipartUploader;
 
     private final String endpoint;
     private final String bucket;
+    private final boolean multipartEnabled;
+    private final long multipartThreshold;
 
     public MinioStorageService(
             @Value("${storage.s3.endpoint}") String endpoint,
             @Value("${storage.s3.access-key}") String accessKey,
             @Value("${storage.s3.secret-key}") String secretKey,
             @Value("${storage.s3.region}") String region,
-            @Value("${storage.s3.bucket}") String bucket
+            @Value("${storage.s3.public-endpoint:${storage.s3.endpoint}}") String publicEndpoint,
+            @Value("${storage.s3.bucket}") String bucket,
+            @Value("${storage.s3.multipart.enabled:true}") boolean multipartEnabled,
+            @Value("${storage.s3.multipart.threshold-bytes:16777216}") long multipartThreshold,
+            @Value("${storage.s3.multipart.part-size-bytes:8388608}") int partSize,
+            @Value("${storage.s3.multipart.concurrency:4}") int partConcurrency,
+            @Value("${storage.s3.multipart.max-part-attempts:3}") int maxPartAttempts,
+            @Value("${storage.s3.multipart.retry-backoff-millis:500}") long retryBackoffMillis,
+            @Value("${storage.s3.max-concurrent-requests:64}") int maxConcurrentRequests,
+            @Value("${storage.s3.request-slot-timeout-millis:30000}") long requestSlotTimeoutMillis,
+            @Qualifier("s3PartExecutor") Executor partExecutor,
+            SdkHttpClient httpClient,
+            ClientOverrideConfiguration overrideConfiguration
     ) {
         this.endpoint = endpoint;
         this.bucket = bucket;
+        this.multipartEnabled = multipartEnabled;
 
         AwsBasicCredentials credentials =
                 AwsBasicCredentials.create(accessKey, secretKey);
@@ -49,8 +91,31 @@ public class MinioStorageService implements StorageService {
                 .credentialsProvider(StaticCredentialsProvider.create(credentials))
                 .region(Region.of(region))
                 .forcePathStyle(true)
+                .httpClient(httpClient)
+                .overrideConfiguration(overrideConfiguration.toBuilder()
+                        .addExecutionInterceptor(
+                                new S3ConcurrencyLimitInterceptor(maxConcurrentRequests, requestSlotTimeoutMillis))
+                        .build())
+                .build();
+
+        this.presigner = S3Presigner.builder()
+                .endpointOverride(URI.create(publicEndpoint))
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .build())
                 .build();
 
+        this.multipartUploader = new S3MultipartUploader(
+                s3Client,
+                partExecutor,
+                partSize,
+                partConcurrency,
+                maxPartAttempts,
+                retryBackoffMillis
+        );
+        this.multipartThreshold = Math.max(multipartThreshold, multipartUploader.getPartSize());
     }
 
     @PostConstruct
@@ -105,6 +170,21 @@ public class MinioStorageService implements StorageService {
             String contentType,
             Map<String, String> metadata
     ) {
+        if (multipartEnabled && (size < 0 || size >= multipartThreshold)) {
+            CompleteMultipartUploadResponse response = multipartUploader.upload(
+                    bucket,
+                    objectKey,
+                    inputStream,
+                    contentType,
+                    metadata
+            );
+            return buildStorageInfo(bucket, objectKey, response.eTag(), response.versionId());
+        }
+
+        if (size < 0) {
+            throw new StorageException("Content length is required when multipart upload is disabled", null);
+        }
+
         try {
             PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
                     .bucket(bucket)
@@ -121,39 +201,363 @@ public class MinioStorageService implements StorageService {
                     RequestBody.fromInputStream(inputStream, size)
             );
 
-            return FileMetadata.StorageInfo.builder()
-                    .storageType("minio")
+            return buildStorageInfo(bucket, objectKey, response.eTag(), response.versionId());
+
+        } catch (S3Exception e) {
+            throw new StorageException("Failed to upload file", e);
+        }
+    }
+
+    @Override
+    public void deleteFile(String bucket, String objectKey) {
+        try {
+            s3Client.deleteObject(
+                    DeleteObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .build()
+            );
+        } catch (S3Exception e) {
+            throw new StorageException("Failed to delete file", e);
+        }
+    }
+
+    @Override
+    public String initiateMultipartUpload(
+            String bucket,
+            String objectKey,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        try {
+            CreateMultipartUploadRequest.Builder requestBuilder = CreateMultipartUploadRequest.builder()
                     .bucket(bucket)
                     .key(objectKey)
-                    .url(endpoint + "/" + bucket + "/" + objectKey)
-                    .eTag(response.eTag())
-                    .build();
+                    .contentType(contentType);
+
+            if (metadata != null && !metadata.isEmpty()) {
+                requestBuilder.metadata(metadata);
+            }
+
+            return s3Client.createMultipartUpload(requestBuilder.build()).uploadId();
 
         } catch (S3Exception e) {
-            throw new StorageException("Failed to upload file", e);
+            throw new StorageException("Failed to initiate multipart upload", e);
+        }
+    }
+
+    @Override
+    public String uploadPart(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            int partNumber,
+            InputStream inputStream,
+            long size
+    ) {
+        try {
+            UploadPartResponse response = s3Client.uploadPart(
+                    UploadPartRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .uploadId(multipartUploadId)
+                            .partNumber(partNumber)
+                            .contentLength(size)
+                            .build(),
+                    RequestBody.fromInputStream(inputStream, size)
+            );
+            return response.eTag();
+
+        } catch (S3Exception e) {
+            throw new StorageException("Failed to upload part " + partNumber, e);
         }
     }
 
+    @Override
+    public FileMetadata.StorageInfo completeMultipartUpload(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            SortedMap<Integer, String> partETags
+    ) {
+        List<CompletedPart> parts = partETags.entrySet().stream()
+                .map(part -> CompletedPart.builder()
+                        .partNumber(part.getKey())
+                        .eTag(part.getValue())
+                        .build())
+                .toList();
 
+        try {
+            CompleteMultipartUploadResponse response = s3Client.completeMultipartUpload(
+                    CompleteMultipartUploadRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .uploadId(multipartUploadId)
+                            .multipartUpload(CompletedMultipartUpload.builder()
+                                    .parts(parts)
+                                    .build())
+                            .build()
+            );
+            return buildStorageInfo(bucket, objectKey, response.eTag(), response.versionId());
+
+        } catch (S3Exception e) {
+            throw new StorageException("Failed to complete multipart upload", e);
+        }
+    }
 
     @Override
-    public Resource downloadFile(String bucket, String objectKey) {
-        ResponseBytes<GetObjectResponse> bytes =
-                s3Client.getObjectAsBytes(
-                        GetObjectRequest.builder()
+    public void abortMultipartUpload(String bucket, String objectKey, String multipartUploadId) {
+        try {
+            s3Client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .uploadId(multipartUploadId)
+                            .build()
+            );
+        } catch (NoSuchUploadException e) {
+            log.debug("Multipart upload already gone: key={}, uploadId={}", objectKey, multipartUploadId);
+        } catch (S3Exception e) {
+            throw new StorageException("Failed to abort multipart upload", e);
+        }
+    }
+
+    @Override
+    public SortedMap<Integer, String> listUploadedParts(String bucket, String objectKey, String multipartUploadId) {
+        SortedMap<Integer, String> parts = new TreeMap<>();
+        try {
+            s3Client.listPartsPaginator(
+                    ListPartsRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .uploadId(multipartUploadId)
+                            .build()
+            ).parts().forEach(part -> parts.put(part.partNumber(), part.eTag()));
+            return parts;
+
+        } catch (S3Exception e) {
+            throw new StorageException("Failed to list uploaded parts", e);
+        }
+    }
+
+    @Override
+    public Optional<ObjectStat> statObject(String bucket, String objectKey) {
+        try {
+            HeadObjectResponse response = s3Client.headObject(
+                    HeadObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .build()
+            );
+            return Optional.of(new ObjectStat(
+                    buildStorageInfo(bucket, objectKey, response.eTag(), response.versionId()),
+                    response.contentLength(),
+                    response.contentType()
+            ));
+
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new StorageException("Failed to read object metadata", e);
+        }
+    }
+
+    @Override
+    public void checkAvailability(String bucket) {
+        try {
+            s3Client.headBucket(
+                    HeadBucketRequest.builder()
+                            .bucket(bucket)
+                            .build()
+            );
+        } catch (SdkException e) {
+            throw new StorageException("Bucket is not available: " + bucket, e);
+        }
+    }
+
+    @Override
+    public Stream<StoredObject> listObjects(String bucket) {
+        return s3Client.listObjectsV2Paginator(
+                        ListObjectsV2Request.builder()
                                 .bucket(bucket)
-                                .key(objectKey)
+                                .maxKeys(LIST_PAGE_SIZE)
+                                .build()
+                ).contents().stream()
+                .map(object -> new StoredObject(object.key(), object.size(), object.lastModified()));
+    }
+
+    @Override
+    public int deleteObjects(String bucket, List<StoredObject> objects) {
+        int deleted = 0;
+
+        for (int from = 0; from < objects.size(); from += DELETE_BATCH_SIZE) {
+            List<ObjectIdentifier> identifiers = objects.subList(from, Math.min(from + DELETE_BATCH_SIZE, objects.size()))
+                    .stream()
+                    .map(object -> ObjectIdentifier.builder().key(object.key()).build())
+                    .toList();
+
+            try {
+                DeleteObjectsResponse response = s3Client.deleteObjects(
+                        DeleteObjectsRequest.builder()
+                                .bucket(bucket)
+                                .delete(Delete.builder().objects(identifiers).quiet(true).build())
                                 .build()
                 );
 
-        return new ByteArrayResource(bytes.asByteArray()) {
+                response.errors().forEach(error ->
+                        log.warn("Failed to delete object {}: {} {}", error.key(), error.code(), error.message()));
+                deleted += identifiers.size() - response.errors().size();
+
+            } catch (S3Exception e) {
+                throw new StorageException("Failed to delete objects", e);
+            }
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public Stream<PendingMultipartUpload> listMultipartUploads(String bucket) {
+        return s3Client.listMultipartUploadsPaginator(
+                        ListMultipartUploadsRequest.builder()
+                                .bucket(bucket)
+                                .build()
+                ).uploads().stream()
+                .map(upload -> new PendingMultipartUpload(upload.key(), upload.uploadId(), upload.initiated()));
+    }
+
+    @Override
+    public URL presignUpload(String bucket, String objectKey, String contentType, long size, Duration ttl) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .contentType(contentType)
+                .contentLength(size)
+                .build();
+
+        return presigner.presignPutObject(
+                PutObjectPresignRequest.builder()
+                        .signatureDuration(ttl)
+                        .putObjectRequest(request)
+                        .build()
+        ).url();
+    }
+
+    @Override
+    public URL presignUploadPart(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            int partNumber,
+            long size,
+            Duration ttl
+    ) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .uploadId(multipartUploadId)
+                .partNumber(partNumber)
+                .contentLength(size)
+                .build();
+
+        return presigner.presignUploadPart(
+                UploadPartPresignRequest.builder()
+                        .signatureDuration(ttl)
+                        .uploadPartRequest(request)
+                        .build()
+        ).url();
+    }
+
+    @Override
+    public URL presignDownload(String bucket, String objectKey, String filename, Duration ttl) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey);
+
+        if (filename != null) {
+            request.responseContentDisposition(ContentDisposition.attachment()
+                    .filename(filename, StandardCharsets.UTF_8)
+                    .build()
+                    .toString());
+        }
+
+        return presigner.presignGetObject(
+                GetObjectPresignRequest.builder()
+                        .signatureDuration(ttl)
+                        .getObjectRequest(request.build())
+                        .build()
+        ).url();
+    }
+
+    @PreDestroy
+    public void close() {
+        presigner.close();
+        s3Client.close();
+    }
+
+    private FileMetadata.StorageInfo buildStorageInfo(String bucket, String objectKey, String eTag, String versionId) {
+        return FileMetadata.StorageInfo.builder()
+                .storageType("minio")
+                .bucket(bucket)
+                .key(objectKey)
+                .url(endpoint + "/" + bucket + "/" + objectKey)
+                .eTag(eTag)
+                .versionId(versionId)
+                .build();
+    }
+
+
+
+    @Override
+    public Resource downloadFile(String bucket, String objectKey) {
+        ResponseInputStream<GetObjectResponse> stream = getObject(
+                GetObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(objectKey)
+                        .build()
+        );
+        long contentLength = stream.response().contentLength();
+
+        return new InputStreamResource(stream) {
             @Override
             public String getFilename() {
                 return objectKey.substring(objectKey.lastIndexOf('/') + 1);
             }
+
+            @Override
+            public long contentLength() {
+                return contentLength;
+            }
         };
     }
 
+    @Override
+    public InputStream openStream(String bucket, String objectKey, long offset, long length) {
+        GetObjectRequest.Builder requestBuilder = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey);
 
-}
+        if (offset > 0 || length >= 0) {
+            String end = length >= 0 ? String.valueOf(offset + length - 1) : "";
+            requestBuilder.range("bytes=" + offset + "-" + end);
+        }
 
+        return getObject(requestBuilder.build());
+    }
+
+    @Override
+    public Optional<Path> resolveLocalPath(String bucket, String objectKey) {
+        return Optional.empty();
+    }
+
+    private ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+        try {
+            return s3Client.getObject(request);
+        } catch (S3Exception e) {
+            throw new StorageException("Failed to download file " + request.key(), e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.file_uploader_servise.service.storage;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class S3ConcurrencyLimitInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Boolean> PERMIT_HELD = new ExecutionAttribute<>("S3ConcurrencyPermit");
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    public S3ConcurrencyLimitInterceptor(int maxConcurrentRequests, long acquireTimeoutMillis) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new StorageService.StorageException(
+                        "Timed out waiting for an S3 request slot after " + acquireTimeoutMillis + " ms", null);
+            }
+            executionAttributes.putAttribute(PERMIT_HELD, Boolean.TRUE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageService.StorageException("Interrupted while waiting for an S3 request slot", e);
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        release(executionAttributes);
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        release(executionAttributes);
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void release(ExecutionAttributes executionAttributes) {
+        if (Boolean.TRUE.equals(executionAttributes.getAttribute(PERMIT_HELD))) {
+            executionAttributes.putAttribute(PERMIT_HELD, Boolean.FALSE);
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.file_uploader_servise.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+public class S3MultipartUploader {
+
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final Executor partExecutor;
+    private final int partSize;
+    private final int concurrency;
+    private final int maxPartAttempts;
+    private final long retryBackoffMillis;
+
+    public S3MultipartUploader(
+            S3Client s3Client,
+            Executor partExecutor,
+            int partSize,
+            int concurrency,
+            int maxPartAttempts,
+            long retryBackoffMillis
+    ) {
+        this.s3Client = s3Client;
+        this.partExecutor = partExecutor;
+        this.partSize = Math.max(partSize, MIN_PART_SIZE);
+        this.concurrency = Math.max(concurrency, 1);
+        this.maxPartAttempts = Math.max(maxPartAttempts, 1);
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    public int getPartSize() {
+        return partSize;
+    }
+
+    public CompleteMultipartUploadResponse upload(
+            String bucket,
+            String objectKey,
+            InputStream inputStream,
+            String contentType,
+            Map<String, String> metadata
+    ) {
+        CreateMultipartUploadRequest.Builder createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .contentType(contentType);
+
+        if (metadata != null && !metadata.isEmpty()) {
+            createRequest.metadata(metadata);
+        }
+
+        String multipartUploadId = s3Client.createMultipartUpload(createRequest.build()).uploadId();
+        log.debug("Multipart upload started: key={}, uploadId={}", objectKey, multipartUploadId);
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+
+        try {
+            int partNumber = 1;
+            while (failure.get() == null) {
+                inFlight.acquire();
+
+                byte[] buffer;
+                try {
+                    buffer = inputStream.readNBytes(partSize);
+                } catch (IOException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                if (buffer.length == 0 && partNumber > 1) {
+                    inFlight.release();
+                    break;
+                }
+
+                int number = partNumber++;
+                parts.add(CompletableFuture
+                        .supplyAsync(() -> uploadPart(bucket, objectKey, multipartUploadId, number, buffer), partExecutor)
+                        .whenComplete((part, ex) -> {
+                            inFlight.release();
+                            if (ex != null) {
+                                failure.compareAndSet(null, ex);
+                            }
+                        }));
+
+                if (buffer.length < partSize) {
+                    break;
+                }
+            }
+
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).join();
+
+            List<CompletedPart> completedParts = parts.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+
+            CompleteMultipartUploadResponse response = s3Client.completeMultipartUpload(
+                    CompleteMultipartUploadRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .uploadId(multipartUploadId)
+                            .multipartUpload(CompletedMultipartUpload.builder()
+                                    .parts(completedParts)
+                                    .build())
+                            .build()
+            );
+
+            log.debug("Multipart upload completed: key={}, parts={}", objectKey, completedParts.size());
+            return response;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(bucket, objectKey, multipartUploadId, parts);
+            throw new StorageService.StorageException("Multipart upload interrupted", e);
+        } catch (IOException | RuntimeException e) {
+            abort(bucket, objectKey, multipartUploadId, parts);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new StorageService.StorageException("Multipart upload failed", cause);
+        }
+    }
+
+    private CompletedPart uploadPart(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            int partNumber,
+            byte[] data
+    ) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                UploadPartResponse response = s3Client.uploadPart(
+                        UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(objectKey)
+                                .uploadId(multipartUploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) data.length)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(data), data.length)
+                );
+
+                return CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(response.eTag())
+                        .build();
+
+            } catch (SdkException e) {
+                if (attempt >= maxPartAttempts) {
+                    throw e;
+                }
+                log.warn("Part upload failed, retrying: key={}, part={}, attempt={}, error={}",
+                        objectKey, partNumber, attempt, e.getMessage());
+                sleepBeforeRetry(attempt);
+            }
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageService.StorageException("Part upload interrupted", e);
+        }
+    }
+
+    private void abort(
+            String bucket,
+            String objectKey,
+            String multipartUploadId,
+            List<CompletableFuture<CompletedPart>> parts
+    ) {
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                .handle((result, ex) -> null)
+                .join();
+
+        try {
+            s3Client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey)
+                            .uploadId(multipartUploadId)
+                            .build()
+            );
+            log.warn("Multipart upload aborted: key={}, uploadId={}", objectKey, multipartUploadId);
+        } catch (SdkException e) {
+            log.error("Failed to abort multipart upload: key={}, uploadId={}", objectKey, multipartUploadId, e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.file_uploader_servise.service.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageHealthIndicator implements HealthIndicator {
+
+    private final StorageService storageService;
+
+    private volatile Health health = Health.unknown().withDetail("reason", "Not checked yet").build();
+
+    @Value("${storage.s3.bucket}")
+    private String bucket;
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    @Scheduled(fixedDelayString = "${app.health.storage.refresh-interval-millis:15000}")
+    public void refresh() {
+        long started = System.nanoTime();
+        try {
+            storageService.checkAvailability(bucket);
+            health = Health.up()
+                    .withDetail("bucket", bucket)
+                    .withDetail("latencyMillis", (System.nanoTime() - started) / 1_000_000)
+                    .withDetail("checkedAt", LocalDateTime.now())
+                    .build();
+
+        } catch (RuntimeException e) {
+            log.warn("Storage health check failed: {}", e.getMessage());
+            health = Health.down(e)
+                    .withDetail("bucket", bucket)
+                    .withDetail("checkedAt", LocalDateTime.now())
+                    .build();
+        }
+    }
+}
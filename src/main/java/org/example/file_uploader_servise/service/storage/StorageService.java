@@ -4,11 +4,25 @@ import org.example.file_uploader_servise.model.FileMetadata;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public interface StorageService {
 
+    String BACKEND = "storageBackend";
+
     FileMetadata.StorageInfo uploadFile(String bucket, String objectKey,
                                         MultipartFile file, Map<String, String> metadata);
 
@@ -16,8 +30,70 @@ public interface StorageService {
                                           InputStream inputStream, long size,
                                           String contentType, Map<String, String> metadata);
 
+    default CompletableFuture<FileMetadata.StorageInfo> uploadFileAsync(String bucket, String objectKey,
+                                                                       Path file, String contentType,
+                                                                       Map<String, String> metadata) {
+        try (InputStream inputStream = new FileInputStream(file.toFile())) {
+            return CompletableFuture.completedFuture(
+                    uploadStream(bucket, objectKey, inputStream, Files.size(file), contentType, metadata));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new StorageException("Failed to read file " + file, e));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     Resource downloadFile(String bucket, String objectKey);
 
+    InputStream openStream(String bucket, String objectKey, long offset, long length);
+
+    Optional<Path> resolveLocalPath(String bucket, String objectKey);
+
+    void deleteFile(String bucket, String objectKey);
+
+    String initiateMultipartUpload(String bucket, String objectKey,
+                                   String contentType, Map<String, String> metadata);
+
+    String uploadPart(String bucket, String objectKey, String multipartUploadId,
+                      int partNumber, InputStream inputStream, long size);
+
+    FileMetadata.StorageInfo completeMultipartUpload(String bucket, String objectKey, String multipartUploadId,
+                                                     SortedMap<Integer, String> partETags);
+
+    void abortMultipartUpload(String bucket, String objectKey, String multipartUploadId);
+
+    SortedMap<Integer, String> listUploadedParts(String bucket, String objectKey, String multipartUploadId);
+
+    Optional<ObjectStat> statObject(String bucket, String objectKey);
+
+    void checkAvailability(String bucket);
+
+    Stream<StoredObject> listObjects(String bucket);
+
+    int deleteObjects(String bucket, List<StoredObject> objects);
+
+    Stream<PendingMultipartUpload> listMultipartUploads(String bucket);
+
+    default String listingKey(String objectKey) {
+        return objectKey;
+    }
+
+    URL presignUpload(String bucket, String objectKey, String contentType, long size, Duration ttl);
+
+    URL presignUploadPart(String bucket, String objectKey, String multipartUploadId,
+                          int partNumber, long size, Duration ttl);
+
+    URL presignDownload(String bucket, String objectKey, String filename, Duration ttl);
+
+
+    record ObjectStat(FileMetadata.StorageInfo storageInfo, long size, String contentType) {
+    }
+
+    record StoredObject(String key, long size, Instant lastModified) {
+    }
+
+    record PendingMultipartUpload(String key, String uploadId, Instant initiated) {
+    }
 
     class StorageException extends RuntimeException {
         public StorageException(String message, Throwable cause) {
@@ -0,0 +1,290 @@
+package org.example.file_uploader_servise.Repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.BsonDocument;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+@Testcontainers
+class UploadRequestRepositoryCustomImplTest {
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+
+    private MongoTemplate mongoTemplate;
+    private UploadRequestRepositoryCustomImpl repository;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(MONGO.getConnectionString());
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = new MongoTemplate(client, "file_uploader_test");
+        mongoTemplate.dropCollection(UploadRequest.class);
+        mongoTemplate.indexOps(UploadRequest.class).ensureIndex(new Index()
+                .named(UploadRequest.CLIENT_UPLOAD_INDEX)
+                .on("client_id", Sort.Direction.ASC)
+                .on("upload_id", Sort.Direction.ASC)
+                .unique());
+        repository = new UploadRequestRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    void concurrentClaimsOfSameUploadCreateExactlyOne() throws Exception {
+        int contenders = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(contenders);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<UploadRequestRepositoryCustom.Claim>> futures = new ArrayList<>();
+            for (int i = 0; i < contenders; i++) {
+                UploadRequest candidate = request("client-1", "upload-1");
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return repository.claim(candidate);
+                }));
+            }
+            start.countDown();
+
+            List<UploadRequestRepositoryCustom.Claim> claims = new ArrayList<>();
+            for (Future<UploadRequestRepositoryCustom.Claim> future : futures) {
+                claims.add(future.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(claims).filteredOn(UploadRequestRepositoryCustom.Claim::created).hasSize(1);
+            assertThat(claims).extracting(claim -> claim.request().getId()).containsOnly(
+                    claims.stream().filter(UploadRequestRepositoryCustom.Claim::created)
+                            .findFirst().orElseThrow().request().getId());
+            assertThat(mongoTemplate.count(new Query(), UploadRequest.class)).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void markCompletedDoesNotOverwriteCancelled() {
+        UploadRequest request = cancelled("client-1", "upload-1");
+
+        assertThat(repository.markCompleted(request.getId(), "metadata-1", "checksum", 1024L)).isFalse();
+
+        UploadRequest stored = mongoTemplate.findById(request.getId(), UploadRequest.class);
+        assertThat(stored.getStatus()).isEqualTo(UploadRequest.Status.CANCELLED);
+        assertThat(stored.getFileMetadataId()).isNull();
+    }
+
+    @Test
+    void markFailedDoesNotOverwriteCancelled() {
+        UploadRequest request = cancelled("client-1", "upload-1");
+
+        assertThat(repository.markFailed(request.getId(), "boom")).isFalse();
+
+        UploadRequest stored = mongoTemplate.findById(request.getId(), UploadRequest.class);
+        assertThat(stored.getStatus()).isEqualTo(UploadRequest.Status.CANCELLED);
+        assertThat(stored.getError()).isNull();
+    }
+
+    @Test
+    void markProcessingOnlyAdvancesPendingRequests() {
+        UploadRequest pending = request("client-1", "upload-1");
+        mongoTemplate.insert(pending);
+        UploadRequest cancelled = cancelled("client-1", "upload-2");
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        int updated = repository.markProcessing(Map.of(
+                pending.getId(), startedAt,
+                cancelled.getId(), startedAt
+        ));
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(mongoTemplate.findById(pending.getId(), UploadRequest.class).getStatus())
+                .isEqualTo(UploadRequest.Status.PROCESSING);
+        assertThat(mongoTemplate.findById(cancelled.getId(), UploadRequest.class).getStatus())
+                .isEqualTo(UploadRequest.Status.CANCELLED);
+    }
+
+    @Test
+    void recordChunkRefreshesUpdatedAtSoStalledCleanupSkipsIt() {
+        UploadRequest request = request("client-1", "upload-1");
+        request.setStatus(UploadRequest.Status.PROCESSING);
+        request.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        mongoTemplate.insert(request);
+
+        boolean recorded = repository.recordChunk(request.getId(), 1, UploadRequest.ChunkInfo.builder()
+                .size(1024L)
+                .eTag("etag-1")
+                .uploadedAt(LocalDateTime.now())
+                .build());
+
+        assertThat(recorded).isTrue();
+        assertThat(repository.failStalled(List.of(request.getId()), LocalDateTime.now().minusMinutes(30), "stalled"))
+                .isEmpty();
+        assertThat(mongoTemplate.findById(request.getId(), UploadRequest.class).getStatus())
+                .isEqualTo(UploadRequest.Status.PROCESSING);
+    }
+
+    @Test
+    void failStalledReturnsOnlyRequestsItFailed() {
+        UploadRequest resumable = request("client-1", "upload-1");
+        resumable.setObjectKey("client-1/upload-1/file.bin");
+        resumable.setStorageUploadId("mpu-1");
+        resumable.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        mongoTemplate.insert(resumable);
+
+        UploadRequest fresh = request("client-1", "upload-2");
+        mongoTemplate.insert(fresh);
+
+        UploadRequest cancelled = cancelled("client-1", "upload-3");
+
+        List<UploadRequest> failed = repository.failStalled(
+                List.of(resumable.getId(), fresh.getId(), cancelled.getId()),
+                LocalDateTime.now().minusMinutes(30),
+                "stalled"
+        );
+
+        assertThat(failed).singleElement().satisfies(request -> {
+            assertThat(request.getId()).isEqualTo(resumable.getId());
+            assertThat(request.getStatus()).isEqualTo(UploadRequest.Status.FAILED);
+            assertThat(request.getError()).isEqualTo("stalled");
+            assertThat(request.getClientId()).isEqualTo("client-1");
+            assertThat(request.getStorageUploadId()).isEqualTo("mpu-1");
+            assertThat(request.getObjectKey()).isEqualTo("client-1/upload-1/file.bin");
+        });
+        assertThat(mongoTemplate.findById(fresh.getId(), UploadRequest.class).getStatus())
+                .isEqualTo(UploadRequest.Status.PENDING);
+    }
+
+    @Test
+    void claimAllTreatsDuplicateKeyOnlyFailureAsLostRace() {
+        UploadRequest winner = request("client-1", "upload-1");
+        mongoTemplate.insert(winner);
+
+        UploadRequest lost = request("client-1", "upload-1");
+        UploadRequest fresh = request("client-1", "upload-2");
+
+        List<UploadRequestRepositoryCustom.Claim> claims = repositoryFailingBulk(bulkFailure(11000), () -> {
+        }).claimAll(List.of(lost, fresh));
+
+        assertThat(claims).hasSize(2);
+        assertThat(claims.get(0).created()).isFalse();
+        assertThat(claims.get(0).request().getId()).isEqualTo(winner.getId());
+        assertThat(claims.get(1).created()).isTrue();
+        assertThat(claims.get(1).request().getId()).isEqualTo(fresh.getId());
+    }
+
+    @Test
+    void claimAllPropagatesNonDuplicateBulkFailures() {
+        UploadRequestRepositoryCustomImpl failing = repositoryFailingBulk(bulkFailure(121), () -> {
+        });
+
+        assertThatThrownBy(() -> failing.claimAll(List.of(request("client-1", "upload-1"))))
+                .isInstanceOf(BulkOperationException.class);
+    }
+
+    @Test
+    void claimAllReclaimsRecordDeletedAfterUpsert() {
+        UploadRequest abandoned = request("client-1", "upload-2");
+        mongoTemplate.insert(abandoned);
+
+        UploadRequest first = request("client-1", "upload-1");
+        UploadRequest second = request("client-1", "upload-2");
+
+        List<UploadRequestRepositoryCustom.Claim> claims = repositoryFailingBulk(null,
+                () -> mongoTemplate.remove(Query.query(Criteria.where("_id").is(abandoned.getId())), UploadRequest.class)
+        ).claimAll(List.of(first, second));
+
+        assertThat(claims).extracting(UploadRequestRepositoryCustom.Claim::created).containsExactly(true, true);
+        assertThat(claims.get(1).request().getId()).isEqualTo(second.getId());
+        assertThat(mongoTemplate.findById(second.getId(), UploadRequest.class)).isNotNull();
+    }
+
+    private UploadRequestRepositoryCustomImpl repositoryFailingBulk(RuntimeException failure, Runnable afterExecute) {
+        MongoTemplate spied = spy(mongoTemplate);
+        doAnswer(invocation -> {
+            BulkOperations real = (BulkOperations) invocation.callRealMethod();
+            BulkOperations bulk = mock(BulkOperations.class, delegatesTo(real));
+            doAnswer(execute -> {
+                BulkWriteResult result = real.execute();
+                afterExecute.run();
+                if (failure != null) {
+                    throw failure;
+                }
+                return result;
+            }).when(bulk).execute();
+            return bulk;
+        }).when(spied).bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(UploadRequest.class));
+        return new UploadRequestRepositoryCustomImpl(spied);
+    }
+
+    private static BulkOperationException bulkFailure(int code) {
+        BulkWriteError error = new BulkWriteError(code, "write error " + code, new BsonDocument(), 0);
+        MongoBulkWriteException source = new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of());
+        return new BulkOperationException("Bulk write failed", source);
+    }
+
+    private UploadRequest cancelled(String clientId, String uploadId) {
+        UploadRequest request = request(clientId, uploadId);
+        request.setStatus(UploadRequest.Status.CANCELLED);
+        return mongoTemplate.insert(request);
+    }
+
+    private static UploadRequest request(String clientId, String uploadId) {
+        return UploadRequest.builder()
+                .id(UUID.randomUUID().toString())
+                .clientId(clientId)
+                .uploadId(uploadId)
+                .originalFilename("file.bin")
+                .contentType("application/octet-stream")
+                .fileSize(1024L)
+                .status(UploadRequest.Status.PENDING)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
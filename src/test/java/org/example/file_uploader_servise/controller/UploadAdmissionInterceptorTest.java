@@ -0,0 +1,116 @@
+package org.example.file_uploader_servise.controller;
+
+import jakarta.servlet.DispatcherType;
+import org.example.file_uploader_servise.exception.FileUploadException;
+import org.example.file_uploader_servise.exception.UploadRejectedException;
+import org.example.file_uploader_servise.service.UploadAdmissionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadAdmissionInterceptorTest {
+
+    private UploadAdmissionService admissionService;
+    private UploadAdmissionInterceptor interceptor;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        admissionService = new UploadAdmissionService();
+        ReflectionTestUtils.setField(admissionService, "enabled", true);
+        ReflectionTestUtils.setField(admissionService, "maxInFlightRequests", 10);
+        ReflectionTestUtils.setField(admissionService, "maxInFlightBytes", 10_000L);
+        ReflectionTestUtils.setField(admissionService, "perClientMaxInFlightRequests", 1);
+        ReflectionTestUtils.setField(admissionService, "perClientMaxInFlightBytes", 5_000L);
+        ReflectionTestUtils.setField(admissionService, "retryAfterSeconds", 5L);
+        interceptor = new UploadAdmissionInterceptor(admissionService);
+    }
+
+    @Test
+    void admitsFromContentLengthAndReleasesOnCompletion() {
+        MockHttpServletRequest request = upload("client-1", 1_000);
+
+        assertThat(interceptor.preHandle(request, response, new Object())).isTrue();
+        assertThat(admissionService.getInFlightBytes()).isEqualTo(1_000);
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertThat(admissionService.getInFlightRequests()).isZero();
+        assertThat(admissionService.getInFlightBytes()).isZero();
+    }
+
+    @Test
+    void releasesPermitWhenHandlerFails() {
+        MockHttpServletRequest request = upload("client-1", 1_000);
+
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), new IllegalStateException("boom"));
+
+        assertThat(admissionService.getInFlightRequests()).isZero();
+        interceptor.preHandle(upload("client-1", 1_000), response, new Object());
+    }
+
+    @Test
+    void keepsPermitTakenOverByAsyncWorkUntilItCompletes() {
+        MockHttpServletRequest request = upload("client-1", 1_000);
+        interceptor.preHandle(request, response, new Object());
+
+        UploadAdmissionService.Permit permit = admissionService.takeOver(request);
+        CompletableFuture<Void> work = new CompletableFuture<>();
+        work.whenComplete((result, ex) -> permit.close());
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertThat(admissionService.getInFlightRequests()).isEqualTo(1);
+        assertThatThrownBy(() -> interceptor.preHandle(upload("client-1", 1_000), response, new Object()))
+                .isInstanceOf(UploadRejectedException.class);
+
+        work.completeExceptionally(new IllegalStateException("storage failed"));
+        assertThat(admissionService.getInFlightRequests()).isZero();
+        assertThat(admissionService.getInFlightBytes()).isZero();
+    }
+
+    @Test
+    void usesDecodedClientIdQueryParameterWhenHeaderIsMissing() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/files/resumable/r-1/chunks/1");
+        request.setQueryString("clientId=client%201&uploadId=u-1");
+        request.setContent(new byte[100]);
+        interceptor.preHandle(request, response, new Object());
+
+        assertThatThrownBy(() -> interceptor.preHandle(upload("client 1", 100), response, new Object()))
+                .isInstanceOf(UploadRejectedException.class);
+    }
+
+    @Test
+    void rejectsUploadWithoutClientId() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/files/upload");
+        request.setContent(new byte[100]);
+
+        assertThatThrownBy(() -> interceptor.preHandle(request, response, new Object()))
+                .isInstanceOf(FileUploadException.class);
+        assertThat(admissionService.getInFlightRequests()).isZero();
+    }
+
+    @Test
+    void skipsReadsAndAsyncDispatches() {
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/v1/files/upload");
+        MockHttpServletRequest asyncDispatch = upload("client-1", 1_000);
+        asyncDispatch.setDispatcherType(DispatcherType.ASYNC);
+
+        assertThat(interceptor.preHandle(get, response, new Object())).isTrue();
+        assertThat(interceptor.preHandle(asyncDispatch, response, new Object())).isTrue();
+        assertThat(admissionService.getInFlightRequests()).isZero();
+    }
+
+    private static MockHttpServletRequest upload(String clientId, int contentLength) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/files/upload");
+        request.addHeader(UploadAdmissionInterceptor.CLIENT_ID_HEADER, clientId);
+        request.setContent(new byte[contentLength]);
+        return request;
+    }
+}
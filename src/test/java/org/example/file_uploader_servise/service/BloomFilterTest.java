@@ -0,0 +1,61 @@
+package org.example.file_uploader_servise.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 50_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.001);
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("ab/cd/" + i);
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("ab/cd/" + i)).as("key %d", i).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFalsePositiveRateNearTarget() {
+        double target = 0.01;
+        BloomFilter filter = new BloomFilter(INSERTIONS, target);
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / PROBES).isLessThan(target * 2);
+    }
+
+    @Test
+    void sizesBitsFromExpectedInsertions() {
+        BloomFilter small = new BloomFilter(1_000, 0.001);
+        BloomFilter large = new BloomFilter(1_000_000, 0.001);
+
+        assertThat(small.sizeInBytes()).isBetween(1_500L, 2_000L);
+        assertThat(large.sizeInBytes()).isGreaterThan(small.sizeInBytes() * 900);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0.001);
+
+        assertThat(filter.mightContain("anything")).isFalse();
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.file_uploader_servise.service;
+
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.service.storage.StorageService;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.stream.Stream;
+
+class FakeStorageService implements StorageService {
+
+    static final String LISTING_PREFIX = "data/";
+
+    final Map<String, StoredObject> objects = new LinkedHashMap<>();
+    final List<PendingMultipartUpload> multipartUploads = new ArrayList<>();
+    final List<String> deletedKeys = new ArrayList<>();
+    final List<String> abortedUploadIds = new ArrayList<>();
+    int deleteCalls;
+
+    void putObject(String objectKey, Instant lastModified) {
+        String key = listingKey(objectKey);
+        objects.put(key, new StoredObject(key, 1024, lastModified));
+    }
+
+    void putMultipartUpload(String objectKey, String uploadId, Instant initiated) {
+        multipartUploads.add(new PendingMultipartUpload(objectKey, uploadId, initiated));
+    }
+
+    @Override
+    public String listingKey(String objectKey) {
+        return LISTING_PREFIX + objectKey;
+    }
+
+    @Override
+    public Stream<StoredObject> listObjects(String bucket) {
+        return List.copyOf(objects.values()).stream();
+    }
+
+    @Override
+    public int deleteObjects(String bucket, List<StoredObject> batch) {
+        deleteCalls++;
+        batch.forEach(object -> {
+            objects.remove(object.key());
+            deletedKeys.add(object.key());
+        });
+        return batch.size();
+    }
+
+    @Override
+    public Stream<PendingMultipartUpload> listMultipartUploads(String bucket) {
+        return List.copyOf(multipartUploads).stream();
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String objectKey, String multipartUploadId) {
+        multipartUploads.removeIf(upload -> upload.uploadId().equals(multipartUploadId));
+        abortedUploadIds.add(multipartUploadId);
+    }
+
+    @Override
+    public void checkAvailability(String bucket) {
+    }
+
+    @Override
+    public FileMetadata.StorageInfo uploadFile(String bucket, String objectKey,
+                                               MultipartFile file, Map<String, String> metadata) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FileMetadata.StorageInfo uploadStream(String bucket, String objectKey, InputStream inputStream,
+                                                 long size, String contentType, Map<String, String> metadata) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Resource downloadFile(String bucket, String objectKey) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InputStream openStream(String bucket, String objectKey, long offset, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Path> resolveLocalPath(String bucket, String objectKey) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void deleteFile(String bucket, String objectKey) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String initiateMultipartUpload(String bucket, String objectKey,
+                                          String contentType, Map<String, String> metadata) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String uploadPart(String bucket, String objectKey, String multipartUploadId,
+                             int partNumber, InputStream inputStream, long size) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FileMetadata.StorageInfo completeMultipartUpload(String bucket, String objectKey, String multipartUploadId,
+                                                            SortedMap<Integer, String> partETags) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SortedMap<Integer, String> listUploadedParts(String bucket, String objectKey, String multipartUploadId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<ObjectStat> statObject(String bucket, String objectKey) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public URL presignUpload(String bucket, String objectKey, String contentType, long size, Duration ttl) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public URL presignUploadPart(String bucket, String objectKey, String multipartUploadId,
+                                 int partNumber, long size, Duration ttl) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public URL presignDownload(String bucket, String objectKey, String filename, Duration ttl) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.file_uploader_servise.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.file_uploader_servise.Repository.FileMetadataRepository;
+import org.example.file_uploader_servise.Repository.JobLeaseRepository;
+import org.example.file_uploader_servise.Repository.StoredBlobRepository;
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.example.file_uploader_servise.model.StoredBlob;
+import org.example.file_uploader_servise.model.UploadRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrphanedObjectCleanupServiceTest {
+
+    private static final Instant OLD = Instant.now().minus(Duration.ofDays(3));
+    private static final Instant RECENT = Instant.now().minus(Duration.ofHours(1));
+
+    private FakeStorageService storage;
+    private OrphanedObjectCleanupService service;
+
+    @BeforeEach
+    void setUp() {
+        storage = new FakeStorageService();
+
+        FileMetadataRepository fileMetadataRepository = mock(FileMetadataRepository.class);
+        when(fileMetadataRepository.findAllStorageKeys())
+                .thenAnswer(invocation -> Stream.of(metadata("files/metadata"), new FileMetadata()));
+
+        StoredBlobRepository storedBlobRepository = mock(StoredBlobRepository.class);
+        when(storedBlobRepository.findAllStorageKeys())
+                .thenAnswer(invocation -> Stream.of(blob("blobs/shared")));
+
+        UploadRequestRepository uploadRequestRepository = mock(UploadRequestRepository.class);
+        when(uploadRequestRepository.findStorageKeysByStatusIn(any()))
+                .thenAnswer(invocation -> Stream.of(UploadRequest.builder()
+                        .objectKey("uploads/active")
+                        .storageUploadId("multipart-active")
+                        .build()));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JobLeaseService jobLeaseService =
+                new JobLeaseService(mock(JobLeaseRepository.class), meterRegistry, false, 120000);
+
+        service = new OrphanedObjectCleanupService(
+                storage,
+                fileMetadataRepository,
+                storedBlobRepository,
+                uploadRequestRepository,
+                mock(MongoTemplate.class),
+                jobLeaseService,
+                meterRegistry
+        );
+
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "dryRun", false);
+        ReflectionTestUtils.setField(service, "bucket", "uploads");
+        ReflectionTestUtils.setField(service, "minAgeHours", 24L);
+        ReflectionTestUtils.setField(service, "multipartMaxAgeHours", 24L);
+        ReflectionTestUtils.setField(service, "deleteBatchSize", 2);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(service, "cronWindowMillis", 3600000L);
+    }
+
+    @Test
+    void keepsReferencedObjectsAndDeletesOrphansInBatches() {
+        storage.putObject("files/metadata", OLD);
+        storage.putObject("blobs/shared", OLD);
+        storage.putObject("uploads/active", OLD);
+        storage.putObject("orphans/1", OLD);
+        storage.putObject("orphans/2", OLD);
+        storage.putObject("orphans/3", OLD);
+
+        service.collectOrphanedObjects();
+
+        assertThat(storage.objects).containsOnlyKeys(
+                "data/files/metadata",
+                "data/blobs/shared",
+                "data/uploads/active"
+        );
+        assertThat(storage.deletedKeys).containsExactly("data/orphans/1", "data/orphans/2", "data/orphans/3");
+        assertThat(storage.deleteCalls).isEqualTo(2);
+    }
+
+    @Test
+    void keepsUnreferencedObjectsYoungerThanMinAge() {
+        storage.putObject("orphans/recent", RECENT);
+        storage.putObject("orphans/old", OLD);
+
+        service.collectOrphanedObjects();
+
+        assertThat(storage.objects).containsOnlyKeys("data/orphans/recent");
+    }
+
+    @Test
+    void abortsOnlyStaleMultipartUploadsWithoutActiveOwner() {
+        storage.putMultipartUpload("uploads/active", "multipart-active", OLD);
+        storage.putMultipartUpload("uploads/abandoned", "multipart-stale", OLD);
+        storage.putMultipartUpload("uploads/fresh", "multipart-fresh", RECENT);
+
+        service.collectOrphanedObjects();
+
+        assertThat(storage.abortedUploadIds).containsExactly("multipart-stale");
+    }
+
+    @Test
+    void dryRunDeletesAndAbortsNothing() {
+        ReflectionTestUtils.setField(service, "dryRun", true);
+        storage.putObject("orphans/1", OLD);
+        storage.putMultipartUpload("uploads/abandoned", "multipart-stale", OLD);
+
+        service.collectOrphanedObjects();
+
+        assertThat(storage.objects).containsOnlyKeys("data/orphans/1");
+        assertThat(storage.deleteCalls).isZero();
+        assertThat(storage.abortedUploadIds).isEmpty();
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+        storage.putObject("orphans/1", OLD);
+
+        service.collectOrphanedObjects();
+
+        assertThat(storage.objects).containsOnlyKeys("data/orphans/1");
+    }
+
+    private static FileMetadata metadata(String key) {
+        return FileMetadata.builder()
+                .storageInfo(FileMetadata.StorageInfo.builder().key(key).build())
+                .build();
+    }
+
+    private static StoredBlob blob(String key) {
+        return StoredBlob.builder()
+                .storageInfo(FileMetadata.StorageInfo.builder().key(key).build())
+                .build();
+    }
+}
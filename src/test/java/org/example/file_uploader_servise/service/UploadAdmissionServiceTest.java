@@ -0,0 +1,126 @@
+package org.example.file_uploader_servise.service;
+
+import org.example.file_uploader_servise.exception.UploadRejectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadAdmissionServiceTest {
+
+    private UploadAdmissionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UploadAdmissionService();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "maxInFlightRequests", 3);
+        ReflectionTestUtils.setField(service, "maxInFlightBytes", 1000L);
+        ReflectionTestUtils.setField(service, "perClientMaxInFlightRequests", 2);
+        ReflectionTestUtils.setField(service, "perClientMaxInFlightBytes", 600L);
+        ReflectionTestUtils.setField(service, "retryAfterSeconds", 5L);
+    }
+
+    @Test
+    void rejectsWhenGlobalRequestBudgetIsExhausted() {
+        service.admit("client-1", 10);
+        service.admit("client-2", 10);
+        service.admit("client-3", 10);
+
+        assertThatThrownBy(() -> service.admit("client-4", 10))
+                .isInstanceOfSatisfying(UploadRejectedException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(5);
+                });
+        assertThat(service.getInFlightRequests()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsWhenGlobalByteBudgetIsExhausted() {
+        service.admit("client-1", 500);
+        service.admit("client-2", 400);
+
+        assertThatThrownBy(() -> service.admit("client-3", 200))
+                .isInstanceOfSatisfying(UploadRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(service.getInFlightBytes()).isEqualTo(900);
+    }
+
+    @Test
+    void rejectsClientOverItsRequestBudgetWithoutAffectingOthers() {
+        service.admit("client-1", 10);
+        service.admit("client-1", 10);
+
+        assertThatThrownBy(() -> service.admit("client-1", 10))
+                .isInstanceOfSatisfying(UploadRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+
+        service.admit("client-2", 10);
+        assertThat(service.getInFlightRequests()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsClientOverItsByteBudget() {
+        service.admit("client-1", 400);
+
+        assertThatThrownBy(() -> service.admit("client-1", 300))
+                .isInstanceOfSatisfying(UploadRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(service.getInFlightBytes()).isEqualTo(400);
+    }
+
+    @Test
+    void closingPermitRestoresBudgetExactlyOnce() {
+        UploadAdmissionService.Permit first = service.admit("client-1", 300);
+        UploadAdmissionService.Permit second = service.admit("client-1", 300);
+
+        first.close();
+        first.close();
+
+        assertThat(service.getInFlightRequests()).isEqualTo(1);
+        assertThat(service.getInFlightBytes()).isEqualTo(300);
+
+        second.close();
+        assertThat(service.getInFlightRequests()).isZero();
+        assertThat(service.getInFlightBytes()).isZero();
+
+        service.admit("client-1", 600).close();
+    }
+
+    @Test
+    void permitIsReleasedWhenWorkFails() {
+        assertThatThrownBy(() -> {
+            try (UploadAdmissionService.Permit ignored = service.admit("client-1", 100)) {
+                throw new IllegalStateException("storage failed");
+            }
+        }).isInstanceOf(IllegalStateException.class);
+
+        assertThat(service.getInFlightRequests()).isZero();
+        assertThat(service.getInFlightBytes()).isZero();
+    }
+
+    @Test
+    void takeOverMovesPermitOutOfRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        UploadAdmissionService.Permit permit = service.admit("client-1", 100);
+        request.setAttribute(UploadAdmissionService.PERMIT_ATTRIBUTE, permit);
+
+        assertThat(service.takeOver(request)).isSameAs(permit);
+        assertThat(request.getAttribute(UploadAdmissionService.PERMIT_ATTRIBUTE)).isNull();
+        assertThat(service.takeOver(request)).isSameAs(UploadAdmissionService.Permit.NONE);
+    }
+
+    @Test
+    void admitsEverythingWhenDisabled() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(service.admit("client-1", 10_000)).isSameAs(UploadAdmissionService.Permit.NONE);
+        }
+        assertThat(service.getInFlightRequests()).isZero();
+    }
+}
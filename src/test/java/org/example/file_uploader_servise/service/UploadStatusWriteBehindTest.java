@@ -0,0 +1,86 @@
+package org.example.file_uploader_servise.service;
+
+import org.example.file_uploader_servise.Repository.UploadRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadStatusWriteBehindTest {
+
+    private UploadRequestRepository uploadRequestRepository;
+    private UploadStatusWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        uploadRequestRepository = mock(UploadRequestRepository.class);
+        writeBehind = new UploadStatusWriteBehind(uploadRequestRepository);
+        ReflectionTestUtils.setField(writeBehind, "maxBatchSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesAllPendingTransitionsInBoundedBatches() {
+        writeBehind.markProcessing("request-1");
+        writeBehind.markProcessing("request-2");
+        writeBehind.markProcessing("request-3");
+
+        writeBehind.flush();
+
+        ArgumentCaptor<Map<String, LocalDateTime>> batches = ArgumentCaptor.forClass(Map.class);
+        verify(uploadRequestRepository, times(2)).markProcessing(batches.capture());
+
+        Map<String, LocalDateTime> flushed = new HashMap<>();
+        batches.getAllValues().forEach(batch -> {
+            assertThat(batch).hasSizeLessThanOrEqualTo(2);
+            flushed.putAll(batch);
+        });
+        assertThat(flushed).containsOnlyKeys("request-1", "request-2", "request-3");
+        assertThat(writeBehind.getPendingCount()).isZero();
+    }
+
+    @Test
+    void discardedTransitionIsNeverWritten() {
+        writeBehind.markProcessing("request-1");
+        writeBehind.discard("request-1");
+
+        writeBehind.flush();
+
+        verify(uploadRequestRepository, never()).markProcessing(anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushKeepsTransitionsForNextAttempt() {
+        when(uploadRequestRepository.markProcessing(anyMap()))
+                .thenThrow(new DataAccessResourceFailureException("mongo down"))
+                .thenReturn(1);
+
+        writeBehind.markProcessing("request-1");
+        writeBehind.flush();
+
+        assertThat(writeBehind.getPendingCount()).isEqualTo(1);
+
+        writeBehind.flush();
+
+        ArgumentCaptor<Map<String, LocalDateTime>> batches = ArgumentCaptor.forClass(Map.class);
+        verify(uploadRequestRepository, times(2)).markProcessing(batches.capture());
+        List<Map<String, LocalDateTime>> attempts = batches.getAllValues();
+        assertThat(attempts.get(1)).isEqualTo(attempts.get(0));
+        assertThat(writeBehind.getPendingCount()).isZero();
+    }
+}
@@ -0,0 +1,326 @@
+package org.example.file_uploader_servise.service.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingStorageServiceTest {
+
+    private static final String BUCKET = "uploads";
+
+    @TempDir
+    Path cacheRoot;
+
+    private InMemoryStorage backend;
+    private AtomicInteger executorTasks;
+    private Executor uploadExecutor;
+
+    @BeforeEach
+    void setUp() {
+        backend = new InMemoryStorage();
+        executorTasks = new AtomicInteger();
+        uploadExecutor = task -> {
+            executorTasks.incrementAndGet();
+            task.run();
+        };
+    }
+
+    @Test
+    void fullReadIsServedFromCacheAfterwards() throws IOException {
+        CachingStorageService cache = cache(1024, 64);
+        backend.put("file", 32);
+
+        readAll(cache.openStream(BUCKET, "file", 0, -1));
+        byte[] second = readAll(cache.openStream(BUCKET, "file", 0, -1));
+
+        assertThat(second).isEqualTo(backend.objects.get("file"));
+        assertThat(backend.opens).isEqualTo(1);
+        assertThat(cache.getCachedBytes()).isEqualTo(32);
+    }
+
+    @Test
+    void partialReadDoesNotCommit() throws IOException {
+        CachingStorageService cache = cache(1024, 64);
+        backend.put("file", 32);
+
+        try (InputStream stream = cache.openStream(BUCKET, "file", 0, -1)) {
+            assertThat(stream.readNBytes(10)).hasSize(10);
+        }
+
+        assertThat(cache.getCachedBytes()).isZero();
+        assertThat(cachedFiles()).isZero();
+
+        readAll(cache.openStream(BUCKET, "file", 0, -1));
+        assertThat(backend.opens).isEqualTo(2);
+    }
+
+    @Test
+    void oversizeObjectOfUnknownLengthIsAbandoned() throws IOException {
+        CachingStorageService cache = cache(1024, 16);
+
+        cache.uploadStream(BUCKET, "large", new ByteArrayInputStream(bytes(32)), -1, null, Map.of());
+
+        assertThat(backend.objects.get("large")).hasSize(32);
+        assertThat(cache.getCachedBytes()).isZero();
+        assertThat(cachedFiles()).isZero();
+    }
+
+    @Test
+    void evictionKeepsCachedBytesConsistent() throws IOException {
+        CachingStorageService cache = cache(40, 16);
+
+        upload(cache, "first", 16);
+        upload(cache, "second", 16);
+        upload(cache, "third", 16);
+
+        assertThat(cache.getCachedBytes()).isEqualTo(32);
+        assertThat(cachedFiles()).isEqualTo(2);
+
+        upload(cache, "second", 10);
+
+        assertThat(cache.getCachedBytes()).isEqualTo(26);
+        assertThat(cachedFiles()).isEqualTo(2);
+
+        readAll(cache.openStream(BUCKET, "first", 0, -1));
+
+        assertThat(backend.opens).isEqualTo(1);
+        assertThat(cache.getCachedBytes()).isEqualTo(26);
+        assertThat(cachedFiles()).isEqualTo(2);
+
+        readAll(cache.openStream(BUCKET, "third", 0, -1));
+
+        assertThat(backend.opens).isEqualTo(2);
+    }
+
+    @Test
+    void deleteByListingKeyInvalidatesCachedCopy() throws IOException {
+        CachingStorageService cache = cache(1024, 64);
+        upload(cache, "kept", 8);
+        upload(cache, "removed", 16);
+
+        int deleted = cache.deleteObjects(BUCKET, List.of(
+                new StorageService.StoredObject(backend.listingKey("removed"), 16, Instant.now())));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(cache.getCachedBytes()).isEqualTo(8);
+        assertThat(cachedFiles()).isEqualTo(1);
+        assertThat(cache.statObject(BUCKET, "removed")).isEmpty();
+    }
+
+    @Test
+    void asyncUploadCopiesIntoCacheOnUploadExecutor() throws Exception {
+        CachingStorageService cache = cache(1024, 64);
+        Path staged = Files.write(Files.createTempFile(cacheRoot, "staged", ".bin"), bytes(24));
+
+        cache.uploadFileAsync(BUCKET, "async", staged, null, Map.of()).get();
+
+        assertThat(executorTasks).hasValue(1);
+        assertThat(cache.getCachedBytes()).isEqualTo(24);
+        assertThat(readAll(cache.openStream(BUCKET, "async", 0, -1))).isEqualTo(bytes(24));
+        assertThat(backend.opens).isZero();
+    }
+
+    @Test
+    void asyncUploadSucceedsWhenUploadExecutorRejectsCacheFill() throws Exception {
+        uploadExecutor = task -> {
+            throw new RejectedExecutionException("saturated");
+        };
+        CachingStorageService cache = cache(1024, 64);
+        Path staged = Files.write(Files.createTempFile(cacheRoot, "staged", ".bin"), bytes(24));
+
+        assertThat(cache.uploadFileAsync(BUCKET, "async", staged, null, Map.of()).get().getKey())
+                .isEqualTo("async");
+        assertThat(backend.objects.get("async")).hasSize(24);
+        assertThat(cache.getCachedBytes()).isZero();
+    }
+
+    private CachingStorageService cache(long maxSizeBytes, long maxObjectSizeBytes) {
+        return new CachingStorageService(backend, cacheRoot.resolve("cache").toString(), maxSizeBytes,
+                maxObjectSizeBytes, true, uploadExecutor, new SimpleMeterRegistry());
+    }
+
+    private static void upload(CachingStorageService cache, String objectKey, int size) {
+        cache.uploadStream(BUCKET, objectKey, new ByteArrayInputStream(bytes(size)), size, null, Map.of());
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        try (stream) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private long cachedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheRoot.resolve("cache"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    private static class InMemoryStorage implements StorageService {
+
+        private final Map<String, byte[]> objects = new HashMap<>();
+        private int opens;
+
+        void put(String objectKey, int size) {
+            objects.put(objectKey, bytes(size));
+        }
+
+        @Override
+        public FileMetadata.StorageInfo uploadStream(String bucket, String objectKey, InputStream inputStream,
+                                                     long size, String contentType, Map<String, String> metadata) {
+            try {
+                objects.put(objectKey, inputStream.readAllBytes());
+            } catch (IOException e) {
+                throw new StorageException("Failed to read stream", e);
+            }
+            return FileMetadata.StorageInfo.builder().bucket(bucket).key(objectKey).build();
+        }
+
+        @Override
+        public InputStream openStream(String bucket, String objectKey, long offset, long length) {
+            byte[] content = objects.get(objectKey);
+            if (content == null) {
+                throw new StorageException("Object not found: " + objectKey, null);
+            }
+            opens++;
+            int end = length < 0 ? content.length : (int) Math.min(content.length, offset + length);
+            return new ByteArrayInputStream(Arrays.copyOfRange(content, (int) offset, end));
+        }
+
+        @Override
+        public Optional<ObjectStat> statObject(String bucket, String objectKey) {
+            return Optional.ofNullable(objects.get(objectKey))
+                    .map(content -> new ObjectStat(null, content.length, null));
+        }
+
+        @Override
+        public void deleteFile(String bucket, String objectKey) {
+            objects.remove(objectKey);
+        }
+
+        @Override
+        public int deleteObjects(String bucket, List<StoredObject> batch) {
+            int deleted = 0;
+            for (StoredObject object : batch) {
+                if (objects.remove(object.key().substring("listed/".length())) != null) {
+                    deleted++;
+                }
+            }
+            return deleted;
+        }
+
+        @Override
+        public String listingKey(String objectKey) {
+            return "listed/" + objectKey;
+        }
+
+        @Override
+        public Stream<StoredObject> listObjects(String bucket) {
+            return objects.entrySet().stream()
+                    .map(entry -> new StoredObject(listingKey(entry.getKey()), entry.getValue().length, Instant.now()));
+        }
+
+        @Override
+        public FileMetadata.StorageInfo uploadFile(String bucket, String objectKey,
+                                                   MultipartFile file, Map<String, String> metadata) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Resource downloadFile(String bucket, String objectKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Path> resolveLocalPath(String bucket, String objectKey) {
+            return Optional.empty();
+        }
+
+        @Override
+        public String initiateMultipartUpload(String bucket, String objectKey,
+                                              String contentType, Map<String, String> metadata) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String uploadPart(String bucket, String objectKey, String multipartUploadId,
+                                 int partNumber, InputStream inputStream, long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileMetadata.StorageInfo completeMultipartUpload(String bucket, String objectKey,
+                                                                String multipartUploadId,
+                                                                SortedMap<Integer, String> partETags) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void abortMultipartUpload(String bucket, String objectKey, String multipartUploadId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedMap<Integer, String> listUploadedParts(String bucket, String objectKey,
+                                                            String multipartUploadId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void checkAvailability(String bucket) {
+        }
+
+        @Override
+        public Stream<PendingMultipartUpload> listMultipartUploads(String bucket) {
+            return Stream.empty();
+        }
+
+        @Override
+        public URL presignUpload(String bucket, String objectKey, String contentType, long size, Duration ttl) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public URL presignUploadPart(String bucket, String objectKey, String multipartUploadId,
+                                     int partNumber, long size, Duration ttl) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public URL presignDownload(String bucket, String objectKey, String filename, Duration ttl) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
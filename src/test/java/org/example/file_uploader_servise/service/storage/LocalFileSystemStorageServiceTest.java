@@ -0,0 +1,153 @@
+package org.example.file_uploader_servise.service.storage;
+
+import org.example.file_uploader_servise.model.FileMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalFileSystemStorageServiceTest {
+
+    private static final String BUCKET = "uploads";
+
+    @TempDir
+    Path root;
+
+    private LocalFileSystemStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalFileSystemStorageService(root.toString(), BUCKET, false);
+        storage.init();
+    }
+
+    @Test
+    void storedObjectCanBeReadBack() throws IOException {
+        byte[] content = "hello, storage".getBytes(StandardCharsets.UTF_8);
+
+        FileMetadata.StorageInfo info = storage.uploadStream(BUCKET, "client-1/file.txt",
+                new ByteArrayInputStream(content), content.length, "text/plain", Map.of());
+
+        assertThat(info.getKey()).isEqualTo("client-1/file.txt");
+        assertThat(storage.statObject(BUCKET, "client-1/file.txt"))
+                .hasValueSatisfying(stat -> assertThat(stat.size()).isEqualTo(content.length));
+        try (InputStream stream = storage.openStream(BUCKET, "client-1/file.txt", 7, 7)) {
+            assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("storage");
+        }
+
+        storage.deleteFile(BUCKET, "client-1/file.txt");
+
+        assertThat(storage.statObject(BUCKET, "client-1/file.txt")).isEmpty();
+    }
+
+    @Test
+    void shortStreamDoesNotReplaceExistingObject() {
+        byte[] content = "original".getBytes(StandardCharsets.UTF_8);
+        storage.uploadStream(BUCKET, "file.txt", new ByteArrayInputStream(content), content.length, null, Map.of());
+
+        assertThatThrownBy(() -> storage.uploadStream(BUCKET, "file.txt",
+                new ByteArrayInputStream(new byte[3]), 10, null, Map.of()))
+                .isInstanceOf(StorageService.StorageException.class);
+
+        assertThat(storage.statObject(BUCKET, "file.txt"))
+                .hasValueSatisfying(stat -> assertThat(stat.size()).isEqualTo(content.length));
+    }
+
+    @Test
+    void multipartUploadJoinsPartsInOrder() throws IOException {
+        String uploadId = storage.initiateMultipartUpload(BUCKET, "joined.txt", null, Map.of());
+        SortedMap<Integer, String> eTags = new TreeMap<>();
+        eTags.put(2, uploadPart(uploadId, 2, "world"));
+        eTags.put(1, uploadPart(uploadId, 1, "hello "));
+
+        storage.completeMultipartUpload(BUCKET, "joined.txt", uploadId, eTags);
+
+        try (InputStream stream = storage.openStream(BUCKET, "joined.txt", 0, -1)) {
+            assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("hello world");
+        }
+        assertThat(storage.listMultipartUploads(BUCKET)).isEmpty();
+    }
+
+    @Test
+    void multipartCompleteRejectsReplacedPart() {
+        String uploadId = storage.initiateMultipartUpload(BUCKET, "replaced.txt", null, Map.of());
+        SortedMap<Integer, String> eTags = new TreeMap<>();
+        eTags.put(1, uploadPart(uploadId, 1, "first"));
+        uploadPart(uploadId, 1, "replacement");
+
+        assertThatThrownBy(() -> storage.completeMultipartUpload(BUCKET, "replaced.txt", uploadId, eTags))
+                .isInstanceOf(StorageService.StorageException.class)
+                .hasMessageContaining("Part 1");
+
+        assertThat(storage.statObject(BUCKET, "replaced.txt")).isEmpty();
+        assertThat(storage.listUploadedParts(BUCKET, "replaced.txt", uploadId)).containsOnlyKeys(1);
+    }
+
+    @Test
+    void deleteObjectsRefusesKeysOutsideBucket() throws IOException {
+        Path outside = Files.writeString(root.resolve("outside.txt"), "keep");
+        String uploadId = storage.initiateMultipartUpload(BUCKET, "pending.txt", null, Map.of());
+        uploadPart(uploadId, 1, "part");
+
+        int deleted = storage.deleteObjects(BUCKET, List.of(
+                stored("../outside.txt"),
+                stored("ab/../../outside.txt"),
+                stored(".multipart/" + uploadId + "/part-1")
+        ));
+
+        assertThat(deleted).isZero();
+        assertThat(outside).exists();
+        assertThat(storage.listUploadedParts(BUCKET, "pending.txt", uploadId)).containsOnlyKeys(1);
+    }
+
+    @Test
+    void listObjectsSkipsMultipartParts() {
+        byte[] content = "stored".getBytes(StandardCharsets.UTF_8);
+        storage.uploadStream(BUCKET, "stored.txt", new ByteArrayInputStream(content), content.length, null, Map.of());
+        String uploadId = storage.initiateMultipartUpload(BUCKET, "pending.txt", null, Map.of());
+        uploadPart(uploadId, 1, "part");
+
+        try (Stream<StorageService.StoredObject> objects = storage.listObjects(BUCKET)) {
+            assertThat(objects).extracting(StorageService.StoredObject::key)
+                    .containsExactly(storage.listingKey("stored.txt"));
+        }
+    }
+
+    @Test
+    void deleteObjectsRemovesListedObjects() {
+        byte[] content = "stored".getBytes(StandardCharsets.UTF_8);
+        storage.uploadStream(BUCKET, "stored.txt", new ByteArrayInputStream(content), content.length, null, Map.of());
+
+        List<StorageService.StoredObject> listed;
+        try (Stream<StorageService.StoredObject> objects = storage.listObjects(BUCKET)) {
+            listed = objects.toList();
+        }
+
+        assertThat(storage.deleteObjects(BUCKET, listed)).isEqualTo(1);
+        assertThat(storage.statObject(BUCKET, "stored.txt")).isEmpty();
+    }
+
+    private String uploadPart(String uploadId, int partNumber, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return storage.uploadPart(BUCKET, "ignored", uploadId, partNumber, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private static StorageService.StoredObject stored(String key) {
+        return new StorageService.StoredObject(key, 0, Instant.now());
+    }
+}
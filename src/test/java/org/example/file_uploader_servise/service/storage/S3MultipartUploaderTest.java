@@ -0,0 +1,125 @@
+package org.example.file_uploader_servise.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class S3MultipartUploaderTest {
+
+    private static final int PART = S3MultipartUploader.MIN_PART_SIZE;
+
+    private S3Client s3Client;
+
+    @BeforeEach
+    void setUp() {
+        s3Client = mock(S3Client.class);
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("mpu-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> UploadPartResponse.builder()
+                        .eTag("etag-" + invocation.<UploadPartRequest>getArgument(0).partNumber())
+                        .build());
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().eTag("final").build());
+    }
+
+    @Test
+    void retriesFailedPartAndCompletes() {
+        doThrow(SdkClientException.create("connection reset"))
+                .doReturn(UploadPartResponse.builder().eTag("etag-2").build())
+                .when(s3Client)
+                .uploadPart(argThat((UploadPartRequest request) -> request.partNumber() == 2), any(RequestBody.class));
+
+        S3MultipartUploader uploader = new S3MultipartUploader(s3Client, Runnable::run, PART, 2, 3, 0);
+
+        uploader.upload("bucket", "key", new ByteArrayInputStream(new byte[PART + 10]), "application/octet-stream",
+                Map.of());
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(complete.capture());
+        assertThat(complete.getValue().multipartUpload().parts())
+                .extracting(CompletedPart::partNumber, CompletedPart::eTag)
+                .containsExactly(tuple(1, "etag-1"), tuple(2, "etag-2"));
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void abortsWhenPartKeepsFailing() {
+        doThrow(SdkClientException.create("connection reset"))
+                .when(s3Client)
+                .uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+
+        S3MultipartUploader uploader = new S3MultipartUploader(s3Client, Runnable::run, PART, 2, 3, 0);
+
+        assertThatThrownBy(() -> uploader.upload("bucket", "key", new ByteArrayInputStream(new byte[PART]),
+                "application/octet-stream", Map.of()))
+                .isInstanceOf(StorageService.StorageException.class)
+                .hasCauseInstanceOf(SdkClientException.class);
+
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client).abortMultipartUpload(argThat((AbortMultipartUploadRequest request) ->
+                request != null && "mpu-1".equals(request.uploadId())));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void readsNextPartOnlyAfterSlotIsFree() throws Exception {
+        BlockingQueue<Runnable> queued = new LinkedBlockingQueue<>();
+        S3MultipartUploader uploader = new S3MultipartUploader(s3Client, queued::add, PART, 2, 1, 0);
+        ByteArrayInputStream input = new ByteArrayInputStream(new byte[PART * 4]);
+
+        CompletableFuture<CompleteMultipartUploadResponse> upload = CompletableFuture.supplyAsync(() ->
+                uploader.upload("bucket", "key", input, "application/octet-stream", Map.of()));
+
+        Runnable first = queued.poll(10, TimeUnit.SECONDS);
+        Runnable second = queued.poll(10, TimeUnit.SECONDS);
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(queued.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(input.available()).isEqualTo(PART * 2);
+
+        first.run();
+        second.run();
+        while (!upload.isDone()) {
+            Runnable next = queued.poll(100, TimeUnit.MILLISECONDS);
+            if (next != null) {
+                next.run();
+            }
+        }
+
+        assertThat(upload.get().eTag()).isEqualTo("final");
+        verify(s3Client, times(4)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    }
+}